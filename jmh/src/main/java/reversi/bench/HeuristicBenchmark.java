@@ -0,0 +1,60 @@
+package reversi.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reversi.ReversiGame;
+import reversi.heuristics.AbstractHeuristic;
+import reversi.heuristics.HeuristicWeights;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de l'évaluation d'une position par chaque heuristique, sur le corpus de Positions.
+ * Chaque heuristique est mesurée dans un processus séparé (fork), sans profil de types pollué par les autres.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class HeuristicBenchmark {
+
+    // paramètre JMH : champ public, nommé comme la colonne du rapport
+    @Param({"score", "mobility", "corners", "frontier", "composite", "pattern"})
+    public String heuristic;
+
+    private ReversiGame[] mGames;
+    private AbstractHeuristic mHeuristic;
+
+    @Setup
+    public void setup() {
+        mGames = Positions.create();
+
+        if(heuristic.equals("composite"))
+            mHeuristic = reversi.bench.Benchmark.createComposite();
+        else if(heuristic.equals("pattern"))
+            mHeuristic = reversi.bench.Benchmark.createPatterns();
+        else
+            mHeuristic = HeuristicWeights.createHeuristic(heuristic);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Positions.COUNT)
+    public void evaluate(Blackhole blackhole) {
+        for(ReversiGame game : mGames) {
+            blackhole.consume(mHeuristic.evaluate(game));
+        }
+    }
+}
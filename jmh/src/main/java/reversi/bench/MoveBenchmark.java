@@ -0,0 +1,98 @@
+package reversi.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reversi.MoveList;
+import reversi.MovePosition;
+import reversi.ReversiGame;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks JMH de la génération des coups, des coups joués et des copies, sur le corpus de Positions.
+ * Les temps sont donnés par position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class MoveBenchmark {
+
+    private ReversiGame[] mGames;
+    private MovePosition[] mFirstMoves;
+    private final MoveList mMoves = new MoveList();
+
+    @Setup
+    public void setup() {
+        mGames = Positions.create();
+        mFirstMoves = new MovePosition[mGames.length];
+        for(int i = 0; i < mGames.length; i++) {
+            mFirstMoves[i] = mGames[i].getPossibleMoves(mGames[i].getCurrentPlayer()).get(0);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Positions.COUNT)
+    public void getPossibleMoves(Blackhole blackhole) {
+        for(ReversiGame game : mGames) {
+            blackhole.consume(game.getPossibleMoves(game.getCurrentPlayer()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Positions.COUNT)
+    public void generateMoves(Blackhole blackhole) {
+        for(ReversiGame game : mGames) {
+            game.generateMoves(mMoves);
+            blackhole.consume(mMoves.size());
+        }
+    }
+
+    /**
+     * Tous les coups possibles de chaque position sont joués puis annulés
+     */
+    @Benchmark
+    @OperationsPerInvocation(Positions.COUNT)
+    public void makeMoveUndoMove(Blackhole blackhole) {
+        for(ReversiGame game : mGames) {
+            game.generateMoves(mMoves);
+            for(int i = 0; i < mMoves.size(); i++) {
+                game.makeMove(mMoves, i);
+                blackhole.consume(game.getHash());
+                game.undoMove();
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Positions.COUNT)
+    public void copy(Blackhole blackhole) {
+        for(ReversiGame game : mGames) {
+            blackhole.consume(game.copy());
+        }
+    }
+
+    /**
+     * play modifie la partie : le temps mesuré inclut la copie, à comparer avec copy
+     */
+    @Benchmark
+    @OperationsPerInvocation(Positions.COUNT)
+    public void copyAndPlay(Blackhole blackhole) {
+        for(int i = 0; i < mGames.length; i++) {
+            ReversiGame copy = mGames[i].copy();
+            blackhole.consume(copy.play(mFirstMoves[i]));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package reversi.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reversi.ReversiGame;
+import reversi.players.HistoryMoveOrderer;
+import reversi.players.MiniMax;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de la recherche MiniMax à profondeur fixe, avec l'heuristique composite, sur le corpus de Positions
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class SearchBenchmark {
+
+    // paramètre JMH : champ public, nommé comme la colonne du rapport
+    @Param({"1", "3", "5"})
+    public int depth;
+
+    private ReversiGame[] mGames;
+
+    @Setup
+    public void setup() {
+        mGames = Positions.create();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Positions.COUNT)
+    public void explore(Blackhole blackhole) {
+        for(ReversiGame game : mGames) {
+            // nouvelle instance : la table de transposition ne doit pas servir d'une mesure à l'autre,
+            // elle est petite pour que son allocation ne domine pas les recherches peu profondes
+            MiniMax miniMax = new MiniMax(reversi.bench.Benchmark.createComposite());
+            miniMax.enableAlphaBeta();
+            miniMax.enableTranspositionTable(12);
+            miniMax.enableMoveOrdering(new HistoryMoveOrderer());
+
+            blackhole.consume(miniMax.explore(game, depth));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package reversi;
+
+/**
+ * BitBoard
+ * Génération et application des coups sur un plateau 8x8 représenté par deux masques de 64 bits.
+ * La case [ligne, colonne] correspond au bit (ligne * 8 + colonne).
+ */
+public final class BitBoard {
+
+    public static final int SIZE = 8;
+
+    // colonnes de bord, utilisées pour éviter de déborder d'une ligne sur l'autre lors des décalages
+    private static final long FIRST_COLUMN = 0x0101010101010101L;
+    private static final long LAST_COLUMN = 0x8080808080808080L;
+
+    // décalages et masques pour les 8 directions (même ordre que dans ReversiGame)
+    private static final int[] SHIFTS = {-9, -8, -7, 1, 9, 8, 7, -1};
+    private static final long[] MASKS = {
+        ~LAST_COLUMN, -1L, ~FIRST_COLUMN, ~FIRST_COLUMN,
+        ~FIRST_COLUMN, -1L, ~LAST_COLUMN, ~LAST_COLUMN
+    };
+
+    private BitBoard() {}
+
+    /**
+     * Renvoie l'index de la case [row, column]
+     * @param row numéro de ligne
+     * @param column numéro de colonne
+     * @return index de la case
+     */
+    public static int square(int row, int column) {
+        return row * SIZE + column;
+    }
+
+    /**
+     * Calcule l'ensemble des coups possibles pour le joueur possédant les pièces own
+     * @param own pièces du joueur
+     * @param opp pièces de l'adversaire
+     * @return masque des cases jouables
+     */
+    public static long getMoves(long own, long opp) {
+        long empty = ~(own | opp);
+        long moves = 0;
+
+        for(int d = 0; d < 8; d++) {
+            // pièces adverses contiguës à une pièce du joueur dans la direction d
+            long x = shift(own, d) & opp;
+            x |= shift(x, d) & opp;
+            x |= shift(x, d) & opp;
+            x |= shift(x, d) & opp;
+            x |= shift(x, d) & opp;
+            x |= shift(x, d) & opp;
+
+            moves |= shift(x, d) & empty;
+        }
+
+        return moves;
+    }
+
+    /**
+     * Calcule les pièces retournées si le joueur pose une pièce sur la case donnée
+     * @param square index de la case
+     * @param own pièces du joueur
+     * @param opp pièces de l'adversaire
+     * @return masque des pièces retournées, 0 si le coup est invalide
+     */
+    public static long getFlips(int square, long own, long opp) {
+        long move = 1L << square;
+
+        if(((own | opp) & move) != 0)
+            return 0;
+
+        long flips = 0;
+
+        for(int d = 0; d < 8; d++) {
+            long line = 0;
+            long x = shift(move, d);
+
+            // on avance tant que l'on croise des pièces adverses
+            while((x & opp) != 0) {
+                line |= x;
+                x = shift(x, d);
+            }
+
+            // la ligne n'est retournée que si elle est fermée par une pièce du joueur
+            if((x & own) != 0)
+                flips |= line;
+        }
+
+        return flips;
+    }
+
+    /**
+     * Calcule les cases voisines (dans les 8 directions) des cases du masque
+     * @param b masque de cases
+     * @return masque des cases voisines
+     */
+    public static long getNeighbours(long b) {
+        long neighbours = 0;
+
+        for(int d = 0; d < 8; d++) {
+            neighbours |= shift(b, d);
+        }
+
+        return neighbours;
+    }
+
+    /**
+     * Décale toutes les pièces du masque d'une case dans la direction donnée
+     */
+    private static long shift(long b, int direction) {
+        int s = SHIFTS[direction];
+        return (s > 0 ? b << s : b >>> -s) & MASKS[direction];
+    }
+}
@@ -1,11 +1,31 @@
 package reversi;
 
+import java.util.Random;
+
 /**
  * Board
  * Classe gérant le plateau de jeu
+ * Les plateaux 8x8 sont représentés par deux masques de 64 bits (voir BitBoard),
+ * les autres tailles par deux masques répartis sur plusieurs mots (voir MultiBitBoard).
  */
 public class Board {
-	private Piece[][] mPlaces;
+	private final int mRows;
+	private final int mColumns;
+
+	// plateau 8x8 : un bit par case pour chaque couleur
+	private final boolean mIsBitBoard;
+	private long mBlack;
+	private long mWhite;
+
+	// autres tailles de plateau : un bit par case pour chaque couleur, sur plusieurs mots
+	private MultiBitBoard mMultiBitBoard;
+	private long[] mBlackWords;
+	private long[] mWhiteWords;
+
+	// hachage de Zobrist : une clé par case et par couleur, mis à jour à chaque modification
+	private static final long[][] BITBOARD_KEYS = createKeys(BitBoard.SIZE * BitBoard.SIZE);
+	private final long[][] mKeys;
+	private long mHash = 0;
 
 	/**
 	 * Constructeur
@@ -13,10 +33,34 @@ public class Board {
 	 * @param columns nombre de colonnes
 	 */
 	public Board(int rows, int columns) {
+		this(rows, columns, null, null);
+	}
+
+	/**
+	 * Constructeur
+	 * @param rows nombre de lignes
+	 * @param columns nombre de colonnes
+	 * @param keys clés de Zobrist à partager, null pour les créer
+	 * @param multiBitBoard générateur de coups dont les tables sont à partager, null pour le créer
+	 */
+	private Board(int rows, int columns, long[][] keys, MultiBitBoard multiBitBoard) {
 		if(rows < 0 || columns < 0)
 			throw new IllegalArgumentException("Rows or collumns cannot be less or equal than 0");
 
-		mPlaces = new Piece[rows][columns];
+		mRows = rows;
+		mColumns = columns;
+		mIsBitBoard = rows == BitBoard.SIZE && columns == BitBoard.SIZE;
+
+		if(!mIsBitBoard) {
+			mMultiBitBoard = multiBitBoard != null ? multiBitBoard.copy() : new MultiBitBoard(rows, columns);
+			mBlackWords = new long[mMultiBitBoard.getWords()];
+			mWhiteWords = new long[mMultiBitBoard.getWords()];
+		}
+
+		if(keys != null)
+			mKeys = keys;
+		else
+			mKeys = mIsBitBoard ? BITBOARD_KEYS : createKeys(rows * columns);
 	}
 
 	/**
@@ -24,7 +68,7 @@ public class Board {
 	 * @return nombre de lignes
 	 */
 	public int getRows() {
-		return mPlaces.length;
+		return mRows;
 	}
 
 	/**
@@ -32,7 +76,50 @@ public class Board {
 	 * @return nombre de colonnes
 	 */
 	public int getColumns() {
-		return mPlaces[0].length;
+		return mColumns;
+	}
+
+	/**
+	 * Indique si le plateau est représenté par des masques de bits
+	 * @return vrai pour un plateau 8x8
+	 */
+	public boolean isBitBoard() {
+		return mIsBitBoard;
+	}
+
+	/**
+	 * Renvoie le masque des pièces d'une couleur (plateaux 8x8 uniquement)
+	 * @param c couleur des pièces
+	 * @return masque des pièces
+	 */
+	public long getPieces(PieceColor c) {
+		return c == PieceColor.Black ? mBlack : mWhite;
+	}
+
+	/**
+	 * Renvoie le masque des pièces d'une couleur (plateaux autres que 8x8).
+	 * Le tableau est celui du plateau : il ne doit pas être modifié.
+	 * @param c couleur des pièces
+	 * @return masque des pièces, un bit par case (ligne * colonnes + colonne)
+	 */
+	public long[] getPieceWords(PieceColor c) {
+		return c == PieceColor.Black ? mBlackWords : mWhiteWords;
+	}
+
+	/**
+	 * Renvoie le générateur de coups propre à ce plateau (plateaux autres que 8x8)
+	 * @return générateur de coups
+	 */
+	public MultiBitBoard getMultiBitBoard() {
+		return mMultiBitBoard;
+	}
+
+	/**
+	 * Renvoie la clé de hachage de Zobrist des pièces présentes sur le plateau
+	 * @return clé de hachage
+	 */
+	public long getHash() {
+		return mHash;
 	}
 
 	/**
@@ -41,7 +128,28 @@ public class Board {
 	public boolean addPiece(int row, int column, PieceColor c) {
 
 		if(validateCoordinates(row, column)) {
-			mPlaces[row][column] = new Piece(c);
+			int square = row * mColumns + column;
+			PieceColor previous = getPieceColor(row, column);
+
+			if(previous != null)
+				mHash ^= mKeys[previous.ordinal()][square];
+			mHash ^= mKeys[c.ordinal()][square];
+
+			if(mIsBitBoard) {
+				long bit = 1L << BitBoard.square(row, column);
+				if(c == PieceColor.Black) {
+					mBlack |= bit;
+					mWhite &= ~bit;
+				} else {
+					mWhite |= bit;
+					mBlack &= ~bit;
+				}
+			} else {
+				long[] own = getPieceWords(c);
+				long[] opp = getPieceWords(c == PieceColor.Black ? PieceColor.White : PieceColor.Black);
+				own[square >>> 6] |= 1L << square;
+				opp[square >>> 6] &= ~(1L << square);
+			}
 			return true;
 		}
 
@@ -49,16 +157,178 @@ public class Board {
 	}
 
 	/**
-	 * Renvoie l'instance de pièce à la position demandée
+	 * Pose une pièce et retourne les pièces capturées (plateaux 8x8 uniquement)
+	 * @param square index de la case jouée
+	 * @param flips masque des pièces à retourner
+	 * @param c couleur du joueur
+	 */
+	public void applyMove(int square, long flips, PieceColor c) {
+		long move = 1L << square;
+
+		mHash ^= mKeys[c.ordinal()][square] ^ flipsHash(flips);
+
+		if(c == PieceColor.Black) {
+			mBlack |= move | flips;
+			mWhite &= ~flips;
+		} else {
+			mWhite |= move | flips;
+			mBlack &= ~flips;
+		}
+	}
+
+	/**
+	 * Annule un coup joué avec applyMove (plateaux 8x8 uniquement)
+	 * @param square index de la case jouée
+	 * @param flips masque des pièces retournées par le coup
+	 * @param c couleur du joueur ayant joué le coup
+	 */
+	public void undoMove(int square, long flips, PieceColor c) {
+		long move = 1L << square;
+
+		mHash ^= mKeys[c.ordinal()][square] ^ flipsHash(flips);
+
+		if(c == PieceColor.Black) {
+			mBlack &= ~(move | flips);
+			mWhite |= flips;
+		} else {
+			mWhite &= ~(move | flips);
+			mBlack |= flips;
+		}
+	}
+
+	/**
+	 * Pose une pièce et retourne les pièces capturées (plateaux autres que 8x8)
+	 * @param square index de la case jouée
+	 * @param flips masque des pièces à retourner
+	 * @param c couleur du joueur
+	 */
+	public void applyMove(int square, long[] flips, PieceColor c) {
+		long[] own = getPieceWords(c);
+		long[] opp = getPieceWords(c == PieceColor.Black ? PieceColor.White : PieceColor.Black);
+
+		mHash ^= mKeys[c.ordinal()][square] ^ flipsHash(flips);
+
+		own[square >>> 6] |= 1L << square;
+		for(int i = 0; i < flips.length; i++) {
+			own[i] |= flips[i];
+			opp[i] &= ~flips[i];
+		}
+	}
+
+	/**
+	 * Annule un coup joué avec applyMove (plateaux autres que 8x8)
+	 * @param square index de la case jouée
+	 * @param flips masque des pièces retournées par le coup
+	 * @param c couleur du joueur ayant joué le coup
+	 */
+	public void undoMove(int square, long[] flips, PieceColor c) {
+		long[] own = getPieceWords(c);
+		long[] opp = getPieceWords(c == PieceColor.Black ? PieceColor.White : PieceColor.Black);
+
+		mHash ^= mKeys[c.ordinal()][square] ^ flipsHash(flips);
+
+		own[square >>> 6] &= ~(1L << square);
+		for(int i = 0; i < flips.length; i++) {
+			own[i] &= ~flips[i];
+			opp[i] |= flips[i];
+		}
+	}
+
+	/**
+	 * Retourne la pièce à la position [row, column], sans effet si la case est vide ou hors du plateau
+	 * @param row numéro de ligne
+	 * @param column numéro de colonne
+	 */
+	public void flipPiece(int row, int column) {
+		if(getPieceColor(row, column) == null)
+			return;
+
+		int square = row * mColumns + column;
+		long bit = 1L << square;
+		mHash ^= mKeys[PieceColor.White.ordinal()][square] ^ mKeys[PieceColor.Black.ordinal()][square];
+
+		if(mIsBitBoard) {
+			mBlack ^= bit;
+			mWhite ^= bit;
+		} else {
+			mBlackWords[square >>> 6] ^= bit;
+			mWhiteWords[square >>> 6] ^= bit;
+		}
+	}
+
+	/**
+	 * Calcule la variation de la clé de hachage lorsque les pièces données sont retournées
+	 * @param flips masque des pièces retournées
+	 * @return variation de la clé
+	 */
+	private long flipsHash(long flips) {
+		long hash = 0;
+
+		while(flips != 0) {
+			int square = Long.numberOfTrailingZeros(flips);
+			hash ^= mKeys[0][square] ^ mKeys[1][square];
+			flips &= flips - 1;
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Calcule la variation de la clé de hachage lorsque les pièces données sont retournées (plateaux autres que 8x8)
+	 * @param flips masque des pièces retournées
+	 * @return variation de la clé
+	 */
+	private long flipsHash(long[] flips) {
+		long hash = 0;
+
+		for(int i = 0; i < flips.length; i++) {
+			long word = flips[i];
+			while(word != 0) {
+				int square = (i << 6) + Long.numberOfTrailingZeros(word);
+				hash ^= mKeys[0][square] ^ mKeys[1][square];
+				word &= word - 1;
+			}
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Renvoie l'instance de pièce à la position demandée.
+	 * La pièce renvoyée est une copie : la retourner ne modifie pas le plateau, utiliser flipPiece.
 	 * @param row numéro de ligne
 	 * @param column numéro de colonne
 	 * @return Pièce à la position spécifiée
 	 */
 	public Piece getPiece(int row, int column) {
-		if(validateCoordinates(row, column)){
-			return mPlaces[row][column];
+		PieceColor c = getPieceColor(row, column);
+		return c == null ? null : new Piece(c);
+	}
+
+	/**
+	 * Renvoie la couleur de la pièce à la position demandée
+	 * @param row numéro de ligne
+	 * @param column numéro de colonne
+	 * @return couleur de la pièce, null si la case est vide ou hors du plateau
+	 */
+	public PieceColor getPieceColor(int row, int column) {
+		if(!validateCoordinates(row, column))
+			return null;
+
+		if(mIsBitBoard) {
+			long bit = 1L << BitBoard.square(row, column);
+			if((mBlack & bit) != 0)
+				return PieceColor.Black;
+			if((mWhite & bit) != 0)
+				return PieceColor.White;
+			return null;
 		}
 
+		int square = row * mColumns + column;
+		if(MultiBitBoard.isSet(mBlackWords, square))
+			return PieceColor.Black;
+		if(MultiBitBoard.isSet(mWhiteWords, square))
+			return PieceColor.White;
 		return null;
 	}
 
@@ -70,8 +340,8 @@ public class Board {
 	private boolean validateCoordinates(int row, int column) {
 		return row >= 0 &&
 				column >= 0 &&
-				row < mPlaces.length &&
-				column < mPlaces[0].length;
+				row < mRows &&
+				column < mColumns;
 	}
 
     /**
@@ -79,19 +349,18 @@ public class Board {
      * @return nouvelle instance
      */
     public Board copy() {
-        Board other = new Board(mPlaces.length, mPlaces[0].length);
-
-        // crée un tableau avec les pièces courantes
-        for(int i = 0; i < mPlaces.length; i++) {
-            for(int j = 0; j < mPlaces[0].length; j++) {
-                if(mPlaces[i][j] == null) {
-                    other.mPlaces[i][j] = null;
-                } else {
-                    other.mPlaces[i][j] = new Piece(mPlaces[i][j].getColor());
-                }
-            }
+        Board other = new Board(mRows, mColumns, mKeys, mMultiBitBoard);
+        other.mHash = mHash;
+
+        if(mIsBitBoard) {
+            other.mBlack = mBlack;
+            other.mWhite = mWhite;
+            return other;
         }
 
+        System.arraycopy(mBlackWords, 0, other.mBlackWords, 0, mBlackWords.length);
+        System.arraycopy(mWhiteWords, 0, other.mWhiteWords, 0, mWhiteWords.length);
+
         return other;
     }
 
@@ -102,20 +371,21 @@ public class Board {
 	public String toString() {
 		StringBuilder ret = new StringBuilder("   ");
 		// affiche la ligne avec les coordonnées des colonnes
-		for(int i = 0; i < mPlaces.length; i++) {
+		for(int i = 0; i < mColumns; i++) {
 			ret.append(i).append(" ");
 		}
 
 		ret.append("\n");
 
 		// affiche le plateau de jeu et les numéros de ligne
-		for(int i = 0; i < mPlaces.length; i++) {
+		for(int i = 0; i < mRows; i++) {
 			ret.append(i).append(" ");
-			for(int j = 0; j < mPlaces[0].length; j++) {
-				if(mPlaces[i][j] == null) {
+			for(int j = 0; j < mColumns; j++) {
+				PieceColor c = getPieceColor(i, j);
+				if(c == null) {
 					ret.append(" -");
 				} else {
-					ret.append(" ").append(mPlaces[i][j].toString());
+					ret.append(" ").append(new Piece(c).toString());
 				}
 			}
 			ret.append("\n");
@@ -123,4 +393,23 @@ public class Board {
 
 		return ret.toString();
 	}
+
+	/**
+	 * Crée les clés de Zobrist pour un plateau du nombre de cases donné.
+	 * Le générateur utilise une graine fixe : les clés sont identiques d'une exécution à l'autre.
+	 * @param squares nombre de cases
+	 * @return clés indexées par [couleur][case]
+	 */
+	private static long[][] createKeys(int squares) {
+		Random random = new Random(0x5EED_2017L);
+		long[][] keys = new long[PieceColor.values().length][squares];
+
+		for(int i = 0; i < squares; i++) {
+			for(int c = 0; c < keys.length; c++) {
+				keys[c][i] = random.nextLong();
+			}
+		}
+
+		return keys;
+	}
 }
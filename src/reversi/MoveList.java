@@ -0,0 +1,158 @@
+package reversi;
+
+import java.util.Arrays;
+
+/**
+ * MoveList
+ * Liste des coups possibles d'un joueur, chaque coup étant accompagné des pièces qu'il retourne.
+ * Un coup est codé par l'index de sa case : ligne * nombre de colonnes + colonne.
+ */
+public final class MoveList {
+    private int[] mSquares;
+    private long[] mFlips;
+    private int mSize = 0;
+    private int mColumns = 1;
+
+    /**
+     * Constructeur
+     */
+    public MoveList() {
+        this(32);
+    }
+
+    /**
+     * Constructeur
+     * @param capacity nombre de coups pouvant être stockés sans réallocation
+     */
+    public MoveList(int capacity) {
+        if(capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be a positive integer");
+
+        mSquares = new int[capacity];
+        mFlips = new long[capacity];
+    }
+
+    /**
+     * Vide la liste
+     * @param columns nombre de colonnes du plateau, utilisé pour décoder les cases
+     */
+    void clear(int columns) {
+        mSize = 0;
+        mColumns = columns;
+    }
+
+    /**
+     * Ajoute un coup à la liste
+     * @param square index de la case jouée
+     * @param flips masque des pièces retournées (plateaux 8x8), 0 sinon
+     */
+    void add(int square, long flips) {
+        if(mSize == mSquares.length) {
+            mSquares = Arrays.copyOf(mSquares, mSize * 2);
+            mFlips = Arrays.copyOf(mFlips, mSize * 2);
+        }
+
+        mSquares[mSize] = square;
+        mFlips[mSize] = flips;
+        mSize++;
+    }
+
+    /**
+     * Renvoie le nombre de coups de la liste
+     * @return nombre de coups
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Indique si la liste est vide
+     * @return vrai si aucun coup n'est possible
+     */
+    public boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    /**
+     * Renvoie l'index de la case du coup donné
+     * @param index position du coup dans la liste
+     * @return index de la case
+     */
+    public int getSquare(int index) {
+        return mSquares[index];
+    }
+
+    /**
+     * Renvoie les pièces retournées par le coup donné (plateaux 8x8 uniquement)
+     * @param index position du coup dans la liste
+     * @return masque des pièces retournées
+     */
+    public long getFlips(int index) {
+        return mFlips[index];
+    }
+
+    /**
+     * Recherche le coup joué sur la case [row, column]
+     * @param row numéro de ligne
+     * @param column numéro de colonne
+     * @return position du coup dans la liste, -1 si ce coup n'est pas possible
+     */
+    public int indexOf(int row, int column) {
+        if(row < 0 || column < 0 || column >= mColumns)
+            return -1;
+
+        int square = row * mColumns + column;
+
+        for(int i = 0; i < mSize; i++) {
+            if(mSquares[i] == square)
+                return i;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Place le coup joué sur la case donnée en tête de liste, l'ordre des autres coups est conservé
+     * @param square index de la case
+     * @return vrai si le coup est dans la liste
+     */
+    public boolean moveToFront(int square) {
+        for(int i = 0; i < mSize; i++) {
+            if(mSquares[i] == square) {
+                long flips = mFlips[i];
+
+                System.arraycopy(mSquares, 0, mSquares, 1, i);
+                System.arraycopy(mFlips, 0, mFlips, 1, i);
+                mSquares[0] = square;
+                mFlips[0] = flips;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Échange deux coups de la liste
+     * @param i position du premier coup
+     * @param j position du second coup
+     */
+    public void swap(int i, int j) {
+        int square = mSquares[i];
+        mSquares[i] = mSquares[j];
+        mSquares[j] = square;
+
+        long flips = mFlips[i];
+        mFlips[i] = mFlips[j];
+        mFlips[j] = flips;
+    }
+
+    /**
+     * Crée la position correspondant au coup donné
+     * @param index position du coup dans la liste
+     * @return position du coup
+     */
+    public MovePosition getMove(int index) {
+        return new MovePosition(mSquares[index] / mColumns, mSquares[index] % mColumns);
+    }
+}
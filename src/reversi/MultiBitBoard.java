@@ -0,0 +1,369 @@
+package reversi;
+
+/**
+ * MultiBitBoard
+ * Génération et application des coups sur un plateau de taille quelconque (autre que 8x8),
+ * chaque couleur étant représentée par un masque de bits réparti sur plusieurs mots de 64 bits.
+ * La case [ligne, colonne] correspond au bit (ligne * colonnes + colonne), le bit i étant le bit (i % 64) du mot (i / 64).
+ *
+ * Comme pour BitBoard, les coups possibles sont calculés par décalages de masques dans les 8 directions,
+ * mot par mot : chaque décalage traite toutes les cases du plateau à la fois.
+ * Les tables de décalages et de masques de bord sont partagées par les copies ;
+ * chaque instance possède en revanche ses tableaux de calcul et ne doit être utilisée que par un thread.
+ */
+public final class MultiBitBoard {
+
+    // déplacements en lignes et en colonnes pour les 8 directions (même ordre que BitBoard)
+    private static final int[] ROW_OFFSETS = {-1, -1, -1, 0, 1, 1, 1, 0};
+    private static final int[] COLUMN_OFFSETS = {-1, 0, 1, 1, 1, 0, -1, -1};
+
+    private final int mRows;
+    private final int mColumns;
+    private final int mWords;
+
+    // longueur maximale d'une ligne de pièces adverses à encadrer
+    private final int mMaxRun;
+
+    // décalage de chaque direction (en mots et en bits) et masque des cases d'arrivée valides
+    // (ni hors du plateau, ni sur la ligne suivante)
+    private final int[] mShifts;
+    private final int[] mWordShifts;
+    private final int[] mBitShifts;
+    private final long[][] mMasks;
+
+    // cases du plateau
+    private final long[] mSquares;
+
+    // tableaux de calcul propres à l'instance
+    private final long[] mLine;
+    private final long[] mNext;
+    private final long[] mEmpty;
+
+    /**
+     * Constructeur
+     * @param rows nombre de lignes
+     * @param columns nombre de colonnes
+     */
+    public MultiBitBoard(int rows, int columns) {
+        if(rows < 0 || columns < 0)
+            throw new IllegalArgumentException("Rows or columns cannot be negative");
+
+        mRows = rows;
+        mColumns = columns;
+        mWords = (rows * columns + 63) >>> 6;
+        mMaxRun = Math.max(0, Math.max(rows, columns) - 2);
+
+        mShifts = new int[8];
+        mWordShifts = new int[8];
+        mBitShifts = new int[8];
+        mMasks = new long[8][mWords];
+        mSquares = new long[mWords];
+
+        for(int square = 0; square < rows * columns; square++) {
+            mSquares[square >>> 6] |= 1L << square;
+        }
+
+        for(int d = 0; d < 8; d++) {
+            mShifts[d] = ROW_OFFSETS[d] * columns + COLUMN_OFFSETS[d];
+            mWordShifts[d] = Math.abs(mShifts[d]) >>> 6;
+            mBitShifts[d] = Math.abs(mShifts[d]) & 63;
+
+            // une case d'arrivée dans la première (ou dernière) colonne viendrait de l'autre bord du plateau
+            for(int square = 0; square < rows * columns; square++) {
+                int column = square % columns;
+                if((COLUMN_OFFSETS[d] > 0 && column == 0) || (COLUMN_OFFSETS[d] < 0 && column == columns - 1))
+                    continue;
+
+                mMasks[d][square >>> 6] |= 1L << square;
+            }
+        }
+
+        mLine = new long[mWords];
+        mNext = new long[mWords];
+        mEmpty = new long[mWords];
+    }
+
+    /**
+     * Constructeur de copie : les tables sont partagées, les tableaux de calcul sont propres à la copie
+     */
+    private MultiBitBoard(MultiBitBoard other) {
+        mRows = other.mRows;
+        mColumns = other.mColumns;
+        mWords = other.mWords;
+        mMaxRun = other.mMaxRun;
+        mShifts = other.mShifts;
+        mWordShifts = other.mWordShifts;
+        mBitShifts = other.mBitShifts;
+        mMasks = other.mMasks;
+        mSquares = other.mSquares;
+
+        mLine = new long[mWords];
+        mNext = new long[mWords];
+        mEmpty = new long[mWords];
+    }
+
+    /**
+     * Crée une instance utilisable par un autre thread (ou un autre plateau)
+     * @return copie
+     */
+    public MultiBitBoard copy() {
+        return new MultiBitBoard(this);
+    }
+
+    /**
+     * Renvoie le nombre de mots des masques de ce plateau
+     * @return nombre de mots
+     */
+    public int getWords() {
+        return mWords;
+    }
+
+    /**
+     * Calcule l'ensemble des coups possibles pour le joueur possédant les pièces own
+     * @param own pièces du joueur
+     * @param opp pièces de l'adversaire
+     * @param moves masque des cases jouables, rempli par la méthode
+     */
+    public void getMoves(long[] own, long[] opp, long[] moves) {
+        for(int i = 0; i < mWords; i++) {
+            mEmpty[i] = ~(own[i] | opp[i]) & mSquares[i];
+            moves[i] = 0;
+        }
+
+        for(int d = 0; d < 8; d++) {
+            // pièces adverses contiguës à une pièce du joueur dans la direction d
+            if(shiftAnd(own, d, opp, mLine) == 0)
+                continue;
+
+            // la ligne est prolongée tant qu'elle s'allonge
+            for(int run = 1; run < mMaxRun; run++) {
+                if(!extend(mLine, d, opp))
+                    break;
+            }
+
+            // la case vide qui suit une ligne est jouable
+            shiftAnd(mLine, d, mEmpty, mNext);
+            for(int i = 0; i < mWords; i++) {
+                moves[i] |= mNext[i];
+            }
+        }
+    }
+
+    /**
+     * Calcule les pièces retournées si le joueur pose une pièce sur la case donnée
+     * @param square index de la case
+     * @param own pièces du joueur
+     * @param opp pièces de l'adversaire
+     * @param flips masque des pièces retournées, rempli par la méthode (vide si le coup est invalide)
+     * @return nombre de pièces retournées, 0 si le coup est invalide
+     */
+    public int getFlips(int square, long[] own, long[] opp, long[] flips) {
+        for(int i = 0; i < mWords; i++) {
+            flips[i] = 0;
+        }
+
+        if(isSet(own, square) || isSet(opp, square))
+            return 0;
+
+        int row = square / mColumns;
+        int column = square % mColumns;
+        int count = 0;
+
+        for(int d = 0; d < 8; d++) {
+            int r = row + ROW_OFFSETS[d];
+            int c = column + COLUMN_OFFSETS[d];
+            int run = 0;
+
+            // on avance tant que l'on croise des pièces adverses
+            while(r >= 0 && r < mRows && c >= 0 && c < mColumns && isSet(opp, r * mColumns + c)) {
+                r += ROW_OFFSETS[d];
+                c += COLUMN_OFFSETS[d];
+                run++;
+            }
+
+            // la ligne n'est retournée que si elle est fermée par une pièce du joueur
+            if(run == 0 || r < 0 || r >= mRows || c < 0 || c >= mColumns || !isSet(own, r * mColumns + c))
+                continue;
+
+            for(int i = 1; i <= run; i++) {
+                int flipped = square + i * mShifts[d];
+                flips[flipped >>> 6] |= 1L << flipped;
+            }
+
+            count += run;
+        }
+
+        return count;
+    }
+
+    /**
+     * Calcule les pièces frontières, c'est-à-dire voisines (dans les 8 directions) d'une case vide
+     * @param own pièces du joueur
+     * @param opp pièces de l'adversaire
+     * @param frontier masque des pièces frontières des deux joueurs, rempli par la méthode
+     */
+    public void getFrontier(long[] own, long[] opp, long[] frontier) {
+        for(int i = 0; i < mWords; i++) {
+            mEmpty[i] = ~(own[i] | opp[i]) & mSquares[i];
+            frontier[i] = 0;
+        }
+
+        for(int d = 0; d < 8; d++) {
+            shiftAnd(mEmpty, d, mSquares, mNext);
+            for(int i = 0; i < mWords; i++) {
+                frontier[i] |= mNext[i];
+            }
+        }
+
+        for(int i = 0; i < mWords; i++) {
+            frontier[i] &= own[i] | opp[i];
+        }
+    }
+
+    /**
+     * Indique si le bit d'une case est présent dans le masque
+     * @param b masque de cases
+     * @param square index de la case
+     * @return vrai si la case est dans le masque
+     */
+    public static boolean isSet(long[] b, int square) {
+        return (b[square >>> 6] & (1L << square)) != 0;
+    }
+
+    /**
+     * Compte les cases d'un masque
+     * @param b masque de cases
+     * @return nombre de cases
+     */
+    public static int bitCount(long[] b) {
+        int count = 0;
+        for(long word : b) {
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    /**
+     * Compte les cases communes à deux masques
+     * @param a premier masque
+     * @param b second masque
+     * @return nombre de cases présentes dans les deux masques
+     */
+    public static int bitCountAnd(long[] a, long[] b) {
+        int count = 0;
+        for(int i = 0; i < a.length; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+
+        return count;
+    }
+
+    /**
+     * Décale toutes les cases du masque d'une case dans la direction donnée et ne garde que les cases de and
+     * @param b masque de cases
+     * @param direction direction du décalage
+     * @param and masque des cases conservées
+     * @param out masque décalé, différent de b
+     * @return union des mots de out, nulle si out est vide
+     */
+    private long shiftAnd(long[] b, int direction, long[] and, long[] out) {
+        long[] mask = mMasks[direction];
+        int bits = mBitShifts[direction];
+        long any = 0;
+
+        if(mWordShifts[direction] != 0) {
+            for(int i = 0; i < mWords; i++) {
+                long v = shifted(b, i, direction) & mask[i] & and[i];
+                out[i] = v;
+                any |= v;
+            }
+        } else if(mShifts[direction] > 0) {
+            // décalage de moins d'un mot : chaque mot reçoit les bits de poids fort du mot précédent
+            long carry = 0;
+            for(int i = 0; i < mWords; i++) {
+                long word = b[i];
+                long v = (word << bits | carry >>> (64 - bits)) & mask[i] & and[i];
+                carry = word;
+                out[i] = v;
+                any |= v;
+            }
+        } else {
+            long carry = 0;
+            for(int i = mWords - 1; i >= 0; i--) {
+                long word = b[i];
+                long v = (word >>> bits | carry << (64 - bits)) & mask[i] & and[i];
+                carry = word;
+                out[i] = v;
+                any |= v;
+            }
+        }
+
+        return any;
+    }
+
+    /**
+     * Prolonge d'une case les lignes du masque dans la direction donnée, sur les cases de and :
+     * line |= décalage(line) & and, calculé sur place
+     * @return vrai si au moins une case a été ajoutée
+     */
+    private boolean extend(long[] line, int direction, long[] and) {
+        long[] mask = mMasks[direction];
+        int bits = mBitShifts[direction];
+        long added = 0;
+
+        if(mWordShifts[direction] != 0) {
+            shiftAnd(line, direction, and, mNext);
+            for(int i = 0; i < mWords; i++) {
+                added |= mNext[i] & ~line[i];
+                line[i] |= mNext[i];
+            }
+        } else if(mShifts[direction] > 0) {
+            // le mot précédent est lu avant d'être modifié
+            long carry = 0;
+            for(int i = 0; i < mWords; i++) {
+                long word = line[i];
+                long v = (word << bits | carry >>> (64 - bits)) & mask[i] & and[i];
+                carry = word;
+                added |= v & ~word;
+                line[i] = word | v;
+            }
+        } else {
+            long carry = 0;
+            for(int i = mWords - 1; i >= 0; i--) {
+                long word = line[i];
+                long v = (word >>> bits | carry << (64 - bits)) & mask[i] & and[i];
+                carry = word;
+                added |= v & ~word;
+                line[i] = word | v;
+            }
+        }
+
+        return added != 0;
+    }
+
+    /**
+     * Mot i d'un masque décalé d'au moins un mot dans la direction donnée (plateaux de plus de 62 colonnes)
+     */
+    private long shifted(long[] b, int i, int direction) {
+        int words = mWordShifts[direction];
+        int bits = mBitShifts[direction];
+
+        // (x >>> 1) >>> (63 - bits) vaut x >>> (64 - bits), et 0 lorsque bits est nul (de même vers la gauche)
+        if(mShifts[direction] > 0) {
+            int j = i - words;
+            if(j < 0)
+                return 0;
+
+            long v = b[j] << bits;
+            return j > 0 ? v | (b[j - 1] >>> 1) >>> (63 - bits) : v;
+        }
+
+        int j = i + words;
+        if(j >= mWords)
+            return 0;
+
+        long v = b[j] >>> bits;
+        return j + 1 < mWords ? v | (b[j + 1] << 1) << (63 - bits) : v;
+    }
+}
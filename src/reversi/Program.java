@@ -2,27 +2,37 @@ package reversi;
 
 import reversi.players.AIPlayer;
 import reversi.players.PlayerInterface;
+import reversi.players.SearchStats;
 import reversi.heuristics.CompositeHeurstic;
-import reversi.heuristics.CornersCapturedHeuristic;
-import reversi.heuristics.MaximiseScoreHeuristic;
-import reversi.heuristics.MobilityHeuristic;
+import reversi.heuristics.HeuristicWeights;
 
 public class Program {
 
 	public static void main(String[] args) {
 	    int gamesToPlay = 1;
 
+	    // -stats : affiche les statistiques de recherche de chaque coup joué par une IA
+	    // -ponder : les IA réfléchissent pendant le tour de l'adversaire
+	    boolean logStats = false, ponder = false;
+	    for(String arg : args) {
+	        if(arg.equals("-stats"))
+	            logStats = true;
+	        else if(arg.equals("-ponder"))
+	            ponder = true;
+	    }
+
 	    for(int i = 0; i < gamesToPlay; i++) {
             //AbstractPlayer whitePlayer = new HumanPlayer(Piece.Color.White);
             //AbstractPlayer blackPlayer = new HumanPlayer(Piece.Color.Black);
 
-            CompositeHeurstic compositeHeurstic = new CompositeHeurstic();
-            compositeHeurstic.addHeuristic(new MaximiseScoreHeuristic(), 10);
-            compositeHeurstic.addHeuristic(new MobilityHeuristic(), 78.922);
-            compositeHeurstic.addHeuristic(new CornersCapturedHeuristic(), 801.724);
+            CompositeHeurstic compositeHeurstic = HeuristicWeights.createDefault().createHeuristic();
 
-            PlayerInterface whitePlayer = new AIPlayer(PieceColor.White, compositeHeurstic, 1);
-            PlayerInterface blackPlayer = new AIPlayer(PieceColor.Black, compositeHeurstic, 5);
+            AIPlayer whitePlayer = new AIPlayer(PieceColor.White, compositeHeurstic.copy(), 1);
+            AIPlayer blackPlayer = new AIPlayer(PieceColor.Black, compositeHeurstic.copy(), 5);
+            whitePlayer.enableEndgameSolver();
+            blackPlayer.enableEndgameSolver();
+            whitePlayer.setPondering(ponder);
+            blackPlayer.setPondering(ponder);
 
             ReversiGame g = new ReversiGame(whitePlayer, blackPlayer);
 
@@ -31,9 +41,24 @@ public class Program {
             //long startTime = System.nanoTime();
             // play until the game is over
             while(!g.isGameOver()) {
-                g.play(g.getCurrentPlayer().playTurn(g));
+                PlayerInterface player = g.getCurrentPlayer();
+                MovePosition move = player.playTurn(g);
+
+                if(logStats && player instanceof AIPlayer) {
+                    SearchStats stats = ((AIPlayer) player).getLastStats();
+                    if(stats != null)
+                        System.out.println(player.getColor() + " " + move + " : " + stats);
+                }
+
+                g.play(move);
+
+                if(player instanceof AIPlayer)
+                    ((AIPlayer) player).ponder(g);
             }
 
+            whitePlayer.stopPondering();
+            blackPlayer.stopPondering();
+
             //long estimatedTime = (System.nanoTime() - startTime) / 1000000;
 
             System.out.println(g.toString());
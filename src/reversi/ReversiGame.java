@@ -1,7 +1,9 @@
 package reversi;
 
+import reversi.heuristics.Patterns;
 import reversi.players.PlayerInterface;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -16,14 +18,14 @@ public final class ReversiGame {
     public final static String SKIPPED_TURN = "reversi.ReversiGame.SKIPPED_TURN";
     public final static String INVALID_MOVE = "reversi.ReversiGame.INVALID_MOVE";
 
-    // offsets pour les directions
-    private final static int[] mOffsetsRows = 	{-1, -1, -1, 0, 1, 1,  1,  0};
-    private final static int[] mOffsetsColumns = {-1,  0,  1, 1, 1, 0, -1, -1};
+    // clé de hachage ajoutée lorsque c'est au joueur noir de jouer
+    private final static long BLACK_TURN_KEY = 0x9E3779B97F4A7C15L;
 
 	private PlayerInterface mWhitePlayer;
 	private PlayerInterface mBlackPlayer;
 
-	private List<MovePosition> mNextPossibleMoves;
+	// le joueur précédent avait-il des coups possibles (sinon, deux tours sans coup terminent la partie)
+	private boolean mLastPlayerHadMoves = false;
 
 	// par défaut le joueur blanc commence
 	private boolean mIsBlackTurn = false;
@@ -32,6 +34,27 @@ public final class ReversiGame {
 	// plateau de jeu
 	private Board mBoard;
 
+	// nombre de pièces de chaque joueur, tenu à jour à chaque coup
+	private int mWhiteScore = 0;
+	private int mBlackScore = 0;
+
+	// pile d'annulation des coups joués avec makeMove / makePass
+	private int mUndoSize = 0;
+	private int[] mUndoSquares = new int[0];
+	private long[] mUndoFlips = new long[0];
+	private long[][] mUndoWordFlips = new long[0][];
+	private int[] mUndoWhiteScores = new int[0];
+	private int[] mUndoBlackScores = new int[0];
+	private boolean[] mUndoBlackTurns = new boolean[0];
+	private boolean[] mUndoLastPlayerHadMoves = new boolean[0];
+
+	// index des motifs de PatternHeuristic des deux points de vue (plateaux 8x8), null tant qu'ils n'ont pas été demandés
+	private int[] mPatternIndexes = null;
+
+	// plateaux autres que 8x8 : masques des coups possibles et des pièces retournées, réutilisés d'un appel à l'autre
+	private long[] mMoveWords = new long[0];
+	private long[] mFlipWords = new long[0];
+
 	/**
 	 * Constructeur
 	 * @param player1 instance du joueur 1
@@ -66,8 +89,6 @@ public final class ReversiGame {
 			mBlackPlayer = player1;
 		}
 
-		mNextPossibleMoves = new ArrayList<>();
-
 		mBoard = new Board(rows, columns);
 	}
 
@@ -88,9 +109,67 @@ public final class ReversiGame {
 		this.mBoard.addPiece(middleRow - 1, middleColumn    , PieceColor.Black);
 		this.mBoard.addPiece(middleRow    , middleColumn - 1, PieceColor.Black);
 
+		mPatternIndexes = null;
+
 		// score initial des deux joueurs
-		mWhitePlayer.setScore(2);
-		mBlackPlayer.setScore(2);
+		mWhiteScore = 2;
+		mBlackScore = 2;
+		updatePlayersScores();
+	}
+
+	/**
+	 * Place les pièces décrites par la chaîne donnée, à la place de init().
+	 * La chaîne décrit le plateau ligne par ligne, un caractère par case :
+	 * 'X' pour une pièce noire, 'O' pour une pièce blanche, '-' ou '.' pour une case vide.
+	 * Les espaces et retours à la ligne sont ignorés.
+	 * Le joueur précédent est supposé avoir joué (la partie ne se termine qu'après deux tours passés).
+	 * @param position description du plateau
+	 * @param toMove couleur du joueur dont c'est le tour
+	 */
+	public void setPosition(String position, PieceColor toMove) {
+		if(position == null || toMove == null)
+			throw new IllegalArgumentException("position and toMove must not be null values");
+
+		int rows = mBoard.getRows();
+		int columns = mBoard.getColumns();
+		Board board = new Board(rows, columns);
+		int whiteScore = 0;
+		int blackScore = 0;
+		int square = 0;
+
+		for(int i = 0; i < position.length(); i++) {
+			char c = position.charAt(i);
+			if(Character.isWhitespace(c))
+				continue;
+
+			if(square >= rows * columns)
+				throw new IllegalArgumentException("position describes more than " + rows * columns + " squares");
+
+			if(c == 'X') {
+				board.addPiece(square / columns, square % columns, PieceColor.Black);
+				blackScore++;
+			} else if(c == 'O') {
+				board.addPiece(square / columns, square % columns, PieceColor.White);
+				whiteScore++;
+			} else if(c != '-' && c != '.') {
+				throw new IllegalArgumentException("Invalid square '" + c + "' in position");
+			}
+
+			square++;
+		}
+
+		if(square != rows * columns)
+			throw new IllegalArgumentException("position must describe " + rows * columns + " squares");
+
+		mBoard = board;
+		mPatternIndexes = null;
+		mIsBlackTurn = toMove == PieceColor.Black;
+		mIsGameOver = false;
+		mLastPlayerHadMoves = true;
+		mUndoSize = 0;
+		mWhiteScore = whiteScore;
+		mBlackScore = blackScore;
+		updatePlayersScores();
 	}
 
 	/**
@@ -102,6 +181,33 @@ public final class ReversiGame {
 		return mIsGameOver;
 	}
 
+	/**
+	 * Renvoie la clé de hachage de la position (pièces du plateau et joueur dont c'est le tour)
+	 * @return clé de hachage
+	 */
+	public long getHash() {
+		return mIsBlackTurn ? mBoard.getHash() ^ BLACK_TURN_KEY : mBoard.getHash();
+	}
+
+	/**
+	 * Renvoie le nombre de pièces d'une couleur sur le plateau
+	 * Contrairement à PlayerInterface.getScore, cette valeur est aussi à jour pendant une recherche (makeMove / undoMove)
+	 * @param c couleur des pièces
+	 * @return nombre de pièces
+	 */
+	public int getScore(PieceColor c) {
+		return c == PieceColor.Black ? mBlackScore : mWhiteScore;
+	}
+
+	/**
+	 * Indique si le joueur précédent a pu jouer un coup.
+	 * Si ce n'est pas le cas et que le joueur courant n'a pas de coup possible, la partie est terminée.
+	 * @return vrai si le joueur précédent a joué, faux s'il a passé son tour
+	 */
+	public boolean hasLastPlayerMoved() {
+		return mLastPlayerHadMoves;
+	}
+
     /**
      * Renvoie le nombre de lignes du plateau de jeu
      * @return nombre de lignes
@@ -126,6 +232,25 @@ public final class ReversiGame {
         return mBoard;
     }
 
+	/**
+	 * Renvoie les index des motifs de PatternHeuristic (plateaux 8x8) : les Patterns.INSTANCE_COUNT premiers
+	 * du point de vue des blancs, les suivants du point de vue des noirs (voir Patterns.getColorIndexes).
+	 * Ils sont calculés au premier appel, puis mis à jour à chaque coup joué ou annulé à partir des pièces retournées.
+	 * Le tableau appartient à la partie et ne doit pas être modifié.
+	 * @return index des motifs
+	 */
+	public int[] getPatternIndexes() {
+		if(!mBoard.isBitBoard())
+			throw new IllegalStateException("Patterns are only defined for 8x8 boards");
+
+		if(mPatternIndexes == null) {
+			mPatternIndexes = new int[2 * Patterns.INSTANCE_COUNT];
+			Patterns.getColorIndexes(mBoard.getPieces(PieceColor.White), mBoard.getPieces(PieceColor.Black), mPatternIndexes);
+		}
+
+		return mPatternIndexes;
+	}
+
 	/**
 	 * Renvoie la couleur des pièces du joueur dont c'est le tour
 	 * @return
@@ -147,19 +272,105 @@ public final class ReversiGame {
 	 * @return liste des mouvements possibles
 	 */
 	public List<MovePosition> getPossibleMoves(PlayerInterface player) {
-		List<MovePosition> possibleMoves = new ArrayList<>();
-		PieceColor c = player.getColor();
+		MoveList moves = generateMoves(player.getColor());
+		List<MovePosition> possibleMoves = new ArrayList<>(moves.size());
 
-		for(int i = 0; i < mBoard.getRows(); i++) {
-			for(int j = 0; j < mBoard.getColumns(); j++) {
-				if(isPossibleMove(i, j, c))
-					possibleMoves.add(new MovePosition(i, j));
-			}
+		for(int i = 0; i < moves.size(); i++) {
+			possibleMoves.add(moves.getMove(i));
 		}
 
 		return possibleMoves;
 	}
 
+	/**
+	 * Calcule les coups possibles du joueur courant ainsi que les pièces retournées par chacun d'eux.
+	 * Les coups de la liste peuvent ensuite être joués sans nouveau calcul avec makeMove(MoveList, int).
+	 * @return liste des coups possibles, dans l'ordre des cases (ligne par ligne)
+	 */
+	public MoveList generateMoves() {
+		return generateMoves(getCurrentPlayer().getColor());
+	}
+
+	/**
+	 * Calcule les coups possibles pour la couleur donnée ainsi que les pièces retournées par chacun d'eux
+	 * @param c couleur du joueur
+	 * @return liste des coups possibles, dans l'ordre des cases (ligne par ligne)
+	 */
+	public MoveList generateMoves(PieceColor c) {
+		MoveList moves = new MoveList();
+		generateMoves(c, moves);
+		return moves;
+	}
+
+	/**
+	 * Calcule les coups possibles du joueur courant dans une liste existante, sans allocation.
+	 * Le contenu précédent de la liste est effacé.
+	 * @param moves liste à remplir
+	 */
+	public void generateMoves(MoveList moves) {
+		generateMoves(getCurrentPlayer().getColor(), moves);
+	}
+
+	/**
+	 * Calcule les coups possibles pour la couleur donnée dans une liste existante, sans allocation.
+	 * Le contenu précédent de la liste est effacé.
+	 * @param c couleur du joueur
+	 * @param moves liste à remplir
+	 */
+	public void generateMoves(PieceColor c, MoveList moves) {
+		moves.clear(mBoard.getColumns());
+
+		if(mBoard.isBitBoard()) {
+			long own = mBoard.getPieces(c);
+			long opp = mBoard.getPieces(opposite(c));
+			long candidates = BitBoard.getMoves(own, opp);
+
+			while(candidates != 0) {
+				int square = Long.numberOfTrailingZeros(candidates);
+				moves.add(square, BitBoard.getFlips(square, own, opp));
+				candidates &= candidates - 1;
+			}
+
+			return;
+		}
+
+		// les pièces retournées ne sont calculées qu'au moment de jouer le coup
+		long[] candidates = getMoveWords(c);
+		for(int i = 0; i < candidates.length; i++) {
+			long word = candidates[i];
+			while(word != 0) {
+				moves.add((i << 6) + Long.numberOfTrailingZeros(word), 0);
+				word &= word - 1;
+			}
+		}
+	}
+
+	/**
+	 * Compte les coups possibles pour la couleur donnée, sans construire de liste
+	 * @param c couleur du joueur
+	 * @return nombre de coups possibles
+	 */
+	public int countMoves(PieceColor c) {
+		if(mBoard.isBitBoard())
+			return Long.bitCount(BitBoard.getMoves(mBoard.getPieces(c), mBoard.getPieces(opposite(c))));
+
+		return MultiBitBoard.bitCount(getMoveWords(c));
+	}
+
+	/**
+	 * Calcule le masque des coups possibles pour la couleur donnée (plateaux autres que 8x8)
+	 * @param c couleur du joueur
+	 * @return masque des cases jouables, réutilisé par l'appel suivant
+	 */
+	private long[] getMoveWords(PieceColor c) {
+		MultiBitBoard multiBitBoard = mBoard.getMultiBitBoard();
+		if(mMoveWords.length != multiBitBoard.getWords())
+			mMoveWords = new long[multiBitBoard.getWords()];
+
+		multiBitBoard.getMoves(mBoard.getPieceWords(c), mBoard.getPieceWords(opposite(c)), mMoveWords);
+		return mMoveWords;
+	}
+
     /**
      * Joue le coup suivant pour le joueur dont c'est le tour
      */
@@ -173,38 +384,154 @@ public final class ReversiGame {
 	public String play(MovePosition desiredMove) {
 
 		// calcule les prochains coups possibles
-		List<MovePosition> nextAvailableMoves = getPossibleMoves(getCurrentPlayer());
+		MoveList nextAvailableMoves = generateMoves();
 
 		// vérifie si la partie est terminée
-		if(nextAvailableMoves.isEmpty() && mNextPossibleMoves.isEmpty()) {
+		if(nextAvailableMoves.isEmpty() && !mLastPlayerHadMoves) {
 			mIsGameOver = true;
 			return GAME_FINISHED;
 		}
 
-        mNextPossibleMoves = nextAvailableMoves;
+        mLastPlayerHadMoves = !nextAvailableMoves.isEmpty();
 
 		// si le joueur suivant n'a pas de coups possibles
-        if(mNextPossibleMoves.isEmpty()) {
+        if(!mLastPlayerHadMoves) {
             switchPlayers();
             return SKIPPED_TURN;
         }
 
-        if(!isPossibleMove(desiredMove, getCurrentPlayer().getColor())) {
+        int index = desiredMove == null ? -1 : nextAvailableMoves.indexOf(desiredMove.getRow(), desiredMove.getColumn());
+
+        if(index < 0) {
             return INVALID_MOVE;
         }
 
-        performMove(desiredMove);
-        updatePoints();
-        switchPlayers();
+        if(!mBoard.isBitBoard() && mFlipWords.length != mBoard.getMultiBitBoard().getWords())
+            mFlipWords = new long[mBoard.getMultiBitBoard().getWords()];
+
+        applyMove(nextAvailableMoves.getSquare(index), nextAvailableMoves.getFlips(index), mFlipWords);
+        updatePlayersScores();
 
         return PLAYER_PLAYED;
 	}
 
+	/**
+	 * Joue le coup donné pour le joueur courant en l'enregistrant dans la pile d'annulation.
+	 * Le coup doit être valide (obtenu par getPossibleMoves), il n'est pas vérifié.
+	 * Utilisé par les algorithmes de recherche pour explorer l'arbre sans copier la partie.
+	 * Les scores des joueurs ne sont pas modifiés, utiliser getScore(PieceColor).
+	 * @param move coup à jouer
+	 */
+	public void makeMove(MovePosition move) {
+		makeMove(move.getRow() * mBoard.getColumns() + move.getColumn());
+	}
+
+	/**
+	 * Joue le coup donné pour le joueur courant en l'enregistrant dans la pile d'annulation.
+	 * Le coup doit être valide, il n'est pas vérifié.
+	 * @param square index de la case jouée (ligne * nombre de colonnes + colonne)
+	 */
+	public void makeMove(int square) {
+		long flips = 0;
+
+		if(mBoard.isBitBoard()) {
+			PieceColor c = getCurrentPlayer().getColor();
+			flips = BitBoard.getFlips(square, mBoard.getPieces(c), mBoard.getPieces(opposite(c)));
+		}
+
+		pushUndo(square, flips);
+		applyMove(square, flips, mUndoWordFlips[mUndoSize - 1]);
+	}
+
+	/**
+	 * Joue un coup de la liste donnée en l'enregistrant dans la pile d'annulation.
+	 * Sur un plateau 8x8, les pièces retournées ont été calculées par generateMoves et ne sont pas recalculées.
+	 * @param moves coups possibles du joueur courant
+	 * @param index position du coup à jouer dans la liste
+	 */
+	public void makeMove(MoveList moves, int index) {
+		int square = moves.getSquare(index);
+		long flips = moves.getFlips(index);
+
+		pushUndo(square, flips);
+		applyMove(square, flips, mUndoWordFlips[mUndoSize - 1]);
+	}
+
+	/**
+	 * Passe le tour du joueur courant en l'enregistrant dans la pile d'annulation.
+	 * A utiliser lorsque le joueur courant n'a aucun coup possible.
+	 */
+	public void makePass() {
+		pushUndo(-1, 0);
+
+		switchPlayers();
+		mLastPlayerHadMoves = false;
+	}
+
+	/**
+	 * Annule le dernier coup joué avec makeMove ou makePass
+	 */
+	public void undoMove() {
+		if(mUndoSize == 0)
+			throw new IllegalStateException("No move to undo");
+
+		int i = --mUndoSize;
+		int square = mUndoSquares[i];
+
+		mIsBlackTurn = mUndoBlackTurns[i];
+		mLastPlayerHadMoves = mUndoLastPlayerHadMoves[i];
+		mWhiteScore = mUndoWhiteScores[i];
+		mBlackScore = mUndoBlackScores[i];
+
+		if(square < 0)
+			return;
+
+		if(mBoard.isBitBoard()) {
+			mBoard.undoMove(square, mUndoFlips[i], getCurrentPlayer().getColor());
+			if(mPatternIndexes != null)
+				Patterns.updateColorIndexes(mPatternIndexes, square, mUndoFlips[i], mIsBlackTurn, -1);
+		} else
+			mBoard.undoMove(square, mUndoWordFlips[i], getCurrentPlayer().getColor());
+	}
+
+	/**
+	 * Enregistre l'état courant dans la pile d'annulation avant de jouer un coup
+	 * @param square case jouée, -1 pour un tour passé
+	 * @param flips pièces retournées par le coup (plateaux 8x8)
+	 */
+	private void pushUndo(int square, long flips) {
+		if(mUndoSize == mUndoSquares.length) {
+			int capacity = Math.max(16, mUndoSize * 2);
+			mUndoSquares = Arrays.copyOf(mUndoSquares, capacity);
+			mUndoFlips = Arrays.copyOf(mUndoFlips, capacity);
+			mUndoWordFlips = Arrays.copyOf(mUndoWordFlips, capacity);
+			mUndoWhiteScores = Arrays.copyOf(mUndoWhiteScores, capacity);
+			mUndoBlackScores = Arrays.copyOf(mUndoBlackScores, capacity);
+			mUndoBlackTurns = Arrays.copyOf(mUndoBlackTurns, capacity);
+			mUndoLastPlayerHadMoves = Arrays.copyOf(mUndoLastPlayerHadMoves, capacity);
+		}
+
+		int i = mUndoSize++;
+		mUndoSquares[i] = square;
+		mUndoFlips[i] = flips;
+		mUndoWhiteScores[i] = mWhiteScore;
+		mUndoBlackScores[i] = mBlackScore;
+		mUndoBlackTurns[i] = mIsBlackTurn;
+		mUndoLastPlayerHadMoves[i] = mLastPlayerHadMoves;
+
+		// autres tailles de plateau : les pièces retournées sont calculées par applyMove dans le masque de ce niveau
+		if(square >= 0 && !mBoard.isBitBoard()) {
+			int words = mBoard.getMultiBitBoard().getWords();
+			if(mUndoWordFlips[i] == null || mUndoWordFlips[i].length != words)
+				mUndoWordFlips[i] = new long[words];
+		}
+	}
+
     public String toCSV() {
         String winnerPlayer;
-        if(mWhitePlayer.getScore() > mBlackPlayer.getScore())
+        if(mWhiteScore > mBlackScore)
             winnerPlayer = "white";
-        else if(mWhitePlayer.getScore() < mBlackPlayer.getScore())
+        else if(mWhiteScore < mBlackScore)
             winnerPlayer = "black";
         else
             winnerPlayer = "draw";
@@ -220,8 +547,11 @@ public final class ReversiGame {
         ReversiGame other = new ReversiGame(mWhitePlayer.copy(), mBlackPlayer.copy());
         other.mIsBlackTurn = mIsBlackTurn;
         other.mIsGameOver = mIsGameOver;
-        other.mNextPossibleMoves = new ArrayList<>(mNextPossibleMoves);
+        other.mLastPlayerHadMoves = mLastPlayerHadMoves;
+        other.mWhiteScore = mWhiteScore;
+        other.mBlackScore = mBlackScore;
         other.mBoard = mBoard.copy();
+        other.mPatternIndexes = mPatternIndexes == null ? null : mPatternIndexes.clone();
 
         return other;
     }
@@ -232,167 +562,78 @@ public final class ReversiGame {
     @Override
     public String toString() {
         return "   Tour du joueur " + (mIsBlackTurn ? "Noir" : "Blanc") + "\n" +
-            "Blanc -> " + mWhitePlayer.getScore() + " | Noir -> " + mBlackPlayer.getScore() + "\n" +
+            "Blanc -> " + mWhiteScore + " | Noir -> " + mBlackScore + "\n" +
             mBoard.toString();
     }
 
 	/**
-	 * Effectue un mouvement à la position donnée sur le plateau
-	 * Change le tour du joueur courant si le mouvement était valide
-	 * @param position Position du mouvement
-	 * @return vrai si le mouvement a été effectué, faux sinon
+	 * Joue un coup valide pour le joueur courant, met à jour les scores et passe au joueur suivant
+	 * @param square index de la case jouée
+	 * @param flips pièces retournées par le coup (plateaux 8x8)
+	 * @param flipWords masque rempli avec les pièces retournées (autres tailles de plateau)
 	 */
-	private void performMove(MovePosition position) {
-		boolean isValid = false;
-
-		// si il y a déjà une pièce sur cette case, le mouvement est impossible
-		if(mBoard.getPiece(position.getRow(), position.getColumn()) != null)
-			return;
-
-		// pour les 8 directions autour de la pièce
-		for(int i = 0; i < 8; i++) {
-			int currentRow = position.getRow() + mOffsetsRows[i];
-			int currentColumn = position.getColumn() + mOffsetsColumns[i];
-
-			// la pièce a t-elle une pièce opposée dans la direction courante
-			boolean hasOpponentPieceBetween = false;
-
-			// tant qu'il reste des pièces dans la direction explorée
-			while(currentRow >= 0 && currentRow < mBoard.getRows() && currentColumn >= 0 && currentColumn < mBoard.getColumns()) {
-				// si la prochaine case dans la direction est vide, on sort de la boucle
-
-				Piece currentPiece = mBoard.getPiece(currentRow, currentColumn);
-
-				if(currentPiece == null)
-					break;
-
-				// si on croise une pièce de la couleur adverse, on mets à jour le flag
-				if(currentPiece.getColor() != getCurrentPlayer().getColor()) {
-					hasOpponentPieceBetween = true;
-				}
-				// si on a une pièce de sa couleur avec une pièce de la couleur adverse entre, on retourne les pièces entre la position de départ et cette pièce
-				else if(hasOpponentPieceBetween) {
-					isValid = true;
-
-					int startRow = position.getRow() + mOffsetsRows[i];
-					int startColumn = position.getColumn() + mOffsetsColumns[i];
-
-					while(startRow != currentRow || startColumn != currentColumn) {
-						//on retourne la pièce concernée
-						Piece flippedPiece = mBoard.getPiece(startRow, startColumn);
-
-						// on retourne la pièce
-						flippedPiece.flip();
-
-						// on passe à la pièce suivante
-						startRow += mOffsetsRows[i];
-						startColumn += mOffsetsColumns[i];
-					}
-					break;
-				}
-
-				// on met à jour la position de la case à vérifier (case suivante dans la direction explorée)
-				currentRow += mOffsetsRows[i];
-				currentColumn += mOffsetsColumns[i];
-			}
+	private void applyMove(int square, long flips, long[] flipWords) {
+		if(mBoard.isBitBoard()) {
+			mBoard.applyMove(square, flips, getCurrentPlayer().getColor());
+			updatePoints(Long.bitCount(flips));
+			if(mPatternIndexes != null)
+				Patterns.updateColorIndexes(mPatternIndexes, square, flips, mIsBlackTurn, 1);
+		} else {
+			updatePoints(performMove(square, flipWords));
 		}
 
-		if(isValid)
-			mBoard.addPiece(position.getRow(), position.getColumn(), getCurrentPlayer().getColor());
+		switchPlayers();
+		mLastPlayerHadMoves = true;
 	}
 
 	/**
-	 * Vérifie si le mouvement donné est possible sur le plateau de jeu
-	 * @param position Position du mouvement à tester
-	 * @param color Couleur de la pièce à poser
-	 * @return Vrai si le coup est valide, faux sinon
+	 * Effectue un mouvement sur la case donnée (plateaux autres que 8x8)
+	 * @param square index de la case jouée
+	 * @param flips masque rempli avec les pièces retournées
+	 * @return nombre de pièces retournées, 0 si le mouvement n'a pas été effectué
 	 */
-	private boolean isPossibleMove(MovePosition position, PieceColor color) {
-		if(position == null)
-			return false;
+	private int performMove(int square, long[] flips) {
+		PieceColor c = getCurrentPlayer().getColor();
+		int flipped = mBoard.getMultiBitBoard().getFlips(square, mBoard.getPieceWords(c), mBoard.getPieceWords(opposite(c)), flips);
 
-		return isPossibleMove(position.getRow(), position.getColumn(), color);
+		if(flipped > 0)
+			mBoard.applyMove(square, flips, c);
+
+		return flipped;
 	}
 
 	/**
-	 * Vérifie si un mouvement est possible
-	 * @param row position de la ligne
-	 * @param column position de la colonne
-	 * @param color couleur de la pièce à poser
-	 * @return boolean vrai si le mouvement est possible, faux sinon
+	 * Mets à jour les points des joueurs (appelée après un mouvement du joueur courant)
+	 * @param flipped nombre de pièces retournées par le mouvement
 	 */
-	private boolean isPossibleMove(int row, int column, PieceColor color) {
-
-		boolean isValid = false;
-
-		// si il y a déjà une pièce sur cette case, le mouvement est impossible
-		if(mBoard.getPiece(row, column) != null)
-			return false;
-
-
-		// pour les 8 directions autour de la pièce
-		for(int i=0; i<8; i++) {
-			int currentRow = row + mOffsetsRows[i];
-			int currentColumn = column + mOffsetsColumns[i];
-
-			// la pièce a t-elle une pièce opposée dans la direction courante
-			boolean hasOpponentPieceBetween = false;
-
-			// tant qu'il reste des pièces dans la direction explorée
-			while(currentRow >= 0 && currentRow < mBoard.getRows() && currentColumn >= 0 && currentColumn < mBoard.getColumns()) {
-				// si la prochaine case dans la direction est vide, on sort de la boucle
-				Piece currentPiece = mBoard.getPiece(currentRow, currentColumn);
-
-				if(currentPiece == null)
-					break;
-
-				// si on croise une pièce de la couleur adverse, on mets à jour le flag
-				if(currentPiece.getColor() != color) {
-					hasOpponentPieceBetween = true;
-				}
-				// si on a une pièce de sa couleur avec une pièce de la couleur adverse entre, on considère que ce mouvement est valide !
-				else if(hasOpponentPieceBetween) {
-					isValid = true;
-					break;
-				}
-				else
-					break;
-
-				// on met à jour la position de la case à vérifier (case suivante dans la direction explorée)
-				currentRow += mOffsetsRows[i];
-				currentColumn += mOffsetsColumns[i];
-			}
-
-			if(isValid)
-				break;
+	private void updatePoints(int flipped) {
+		if(flipped == 0)
+			return;
 
+		if(mIsBlackTurn) {
+			mBlackScore += flipped + 1;
+			mWhiteScore -= flipped;
+		} else {
+			mWhiteScore += flipped + 1;
+			mBlackScore -= flipped;
 		}
-
-		return isValid;
 	}
 
 	/**
-	 * Mets à jour les points des joueurs (appelée après un mouvement)
+	 * Reporte le nombre de pièces de chaque couleur dans le score des joueurs
 	 */
-	private void updatePoints() {
-		int blackScore = 0;
-		int whitescore = 0;
-
-		for(int i = 0; i < mBoard.getRows(); i++) {
-			for(int j = 0; j < mBoard.getColumns(); j++) {
-				Piece p = mBoard.getPiece(i, j);
-				if(p != null) {
-					if(p.getColor() == PieceColor.Black)
-						blackScore++;
-					else
-						whitescore++;
-				}
-			}
-		}
+	private void updatePlayersScores() {
+		mWhitePlayer.setScore(mWhiteScore);
+		mBlackPlayer.setScore(mBlackScore);
+	}
 
-		// mets à jour les scores
-		mWhitePlayer.setScore(whitescore);
-		mBlackPlayer.setScore(blackScore);
+	/**
+	 * Renvoie la couleur adverse
+	 * @param c couleur du joueur
+	 * @return couleur de l'adversaire
+	 */
+	private static PieceColor opposite(PieceColor c) {
+		return c == PieceColor.White ? PieceColor.Black : PieceColor.White;
 	}
 
 	/**
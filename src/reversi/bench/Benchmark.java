@@ -0,0 +1,393 @@
+package reversi.bench;
+
+import reversi.Board;
+import reversi.MoveList;
+import reversi.MovePosition;
+import reversi.ReversiGame;
+import reversi.heuristics.AbstractHeuristic;
+import reversi.heuristics.CachedHeuristic;
+import reversi.heuristics.EvaluationCache;
+import reversi.heuristics.HeuristicWeights;
+import reversi.heuristics.CornersCapturedHeuristic;
+import reversi.heuristics.FrontierHeuristic;
+import reversi.heuristics.MaximiseScoreHeuristic;
+import reversi.heuristics.MobilityHeuristic;
+import reversi.heuristics.PatternHeuristic;
+import reversi.heuristics.PatternWeights;
+import reversi.heuristics.Patterns;
+import reversi.players.HistoryMoveOrderer;
+import reversi.players.MiniMax;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+/**
+ * Benchmarks du moteur de jeu
+ * Mesure le temps moyen d'une opération (génération des coups, coup joué, copie du plateau,
+ * heuristiques, recherche MiniMax) sur le corpus de positions fixes de Positions.
+ *
+ * Chaque benchmark est d'abord exécuté pendant plusieurs itérations de préchauffage (compilation JIT),
+ * puis mesuré sur plusieurs itérations d'une durée minimale. Le résultat de chaque opération est
+ * accumulé dans un puits pour que le compilateur ne puisse pas supprimer le calcul.
+ * La mémoire allouée par opération est mesurée par le compteur d'allocation du thread, lorsque la JVM le fournit.
+ * Mesure rapide sans dépendance : les mêmes benchmarks existent dans le module jmh (build Gradle),
+ * exécutés par JMH dans des processus séparés et protégés de l'élimination du code mort.
+ *
+ * Avec -check, vérifie seulement qu'aucune heuristique n'alloue de mémoire par évaluation une fois préchauffée,
+ * et se termine avec le code 1 dans le cas contraire.
+ *
+ * Usage : java -cp bin reversi.bench.Benchmark [-check] [-w warmup] [-i iterations] [-t ms] [filtre]
+ */
+public final class Benchmark {
+
+    private int mWarmupIterations = 5;
+    private int mIterations = 10;
+    private long mIterationNanos = 200_000_000L;
+    private String mFilter = "";
+
+    // évaluations de préchauffage puis mesurées de chaque position par la vérification des allocations
+    private static final int ALLOCATION_WARMUP_ROUNDS = 20_000;
+    private static final int ALLOCATION_ROUNDS = 20_000;
+
+    // puits des résultats, empêche l'élimination du code mesuré
+    private static volatile long sSink;
+
+    // compteur d'allocation par thread, null si la JVM ne le fournit pas
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = createAllocationCounter();
+
+    public static void main(String[] args) {
+        Benchmark benchmark = new Benchmark();
+        boolean check = false;
+
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "-check":
+                    check = true;
+                    break;
+                case "-w":
+                    benchmark.mWarmupIterations = Integer.parseInt(args[++i]);
+                    break;
+                case "-i":
+                    benchmark.mIterations = Integer.parseInt(args[++i]);
+                    break;
+                case "-t":
+                    benchmark.mIterationNanos = Long.parseLong(args[++i]) * 1_000_000L;
+                    break;
+                default:
+                    benchmark.mFilter = args[i];
+            }
+        }
+
+        if(benchmark.mWarmupIterations < 0 || benchmark.mIterations <= 0 || benchmark.mIterationNanos <= 0)
+            throw new IllegalArgumentException("warmup cannot be negative, iterations and time must be positive");
+
+        if(check) {
+            System.exit(checkAllocations() ? 0 : 1);
+            return;
+        }
+
+        benchmark.runAll();
+    }
+
+    /**
+     * Vérifie qu'aucune heuristique n'alloue de mémoire pour évaluer une position, une fois préchauffée.
+     * Les positions du corpus et celles atteintes après chacun de leurs coups sont évaluées :
+     * le cache de CachedHeuristic est assez petit pour que la plupart des évaluations soient des défauts.
+     * @return vrai si aucune heuristique n'alloue de mémoire
+     */
+    public static boolean checkAllocations() {
+        if(ALLOCATIONS == null) {
+            System.out.println("Per-thread allocation counters are not supported by this JVM, allocations cannot be checked");
+            return false;
+        }
+
+        List<ReversiGame> positions = new ArrayList<>();
+        for(ReversiGame game : Positions.create()) {
+            positions.add(game);
+            for(MovePosition move : game.getPossibleMoves(game.getCurrentPlayer())) {
+                ReversiGame child = game.copy();
+                child.play(move);
+                positions.add(child);
+            }
+        }
+        ReversiGame[] games = positions.toArray(new ReversiGame[0]);
+
+        List<AbstractHeuristic> heuristics = createHeuristics();
+        heuristics.add(new CachedHeuristic(createComposite(), new EvaluationCache(4)));
+
+        // octets comptés par la lecture du compteur elle-même
+        long first = allocatedBytes();
+        long overhead = allocatedBytes() - first;
+
+        boolean ok = true;
+        for(AbstractHeuristic heuristic : heuristics) {
+            for(int i = 0; i < ALLOCATION_WARMUP_ROUNDS; i++) {
+                sSink += evaluateAll(heuristic, games);
+            }
+
+            long before = allocatedBytes();
+            for(int i = 0; i < ALLOCATION_ROUNDS; i++) {
+                sSink += evaluateAll(heuristic, games);
+            }
+            long allocated = allocatedBytes() - before - overhead;
+
+            boolean match = allocated <= 0;
+            ok &= match;
+
+            System.out.println(String.format(Locale.ROOT, "%-36s %10.3f B/op %s", heuristic.getClass().getSimpleName() + ".evaluate",
+                Math.max(0, allocated) / ((double) ALLOCATION_ROUNDS * games.length), match ? "OK" : "FAILED"));
+        }
+
+        return ok;
+    }
+
+    /**
+     * Évalue toutes les positions données
+     * @return valeur dépendant des évaluations
+     */
+    private static long evaluateAll(AbstractHeuristic heuristic, ReversiGame[] games) {
+        double total = 0;
+        for(ReversiGame game : games) {
+            total += heuristic.evaluate(game);
+        }
+
+        return (long) total;
+    }
+
+    /**
+     * Exécute tous les benchmarks dont le nom contient le filtre
+     */
+    private void runAll() {
+        ReversiGame[] games = Positions.create();
+        MovePosition[] firstMoves = new MovePosition[games.length];
+        for(int i = 0; i < games.length; i++) {
+            firstMoves[i] = games[i].getPossibleMoves(games[i].getCurrentPlayer()).get(0);
+        }
+
+        System.out.println(String.format(Locale.ROOT, "%-36s %14s %12s %14s %10s", "benchmark", "ns/op", "+/- stddev", "ops", "B/op"));
+
+        run("getPossibleMoves", () -> {
+            long total = 0;
+            for(ReversiGame game : games) {
+                total += game.getPossibleMoves(game.getCurrentPlayer()).size();
+            }
+            return total;
+        }, games.length);
+
+        MoveList moves = new MoveList();
+        run("generateMoves", () -> {
+            long total = 0;
+            for(ReversiGame game : games) {
+                game.generateMoves(moves);
+                total += moves.size();
+            }
+            return total;
+        }, games.length);
+
+        run("makeMove+undoMove", () -> {
+            long total = 0;
+            for(ReversiGame game : games) {
+                game.generateMoves(moves);
+                for(int i = 0; i < moves.size(); i++) {
+                    game.makeMove(moves, i);
+                    total += game.getHash();
+                    game.undoMove();
+                }
+            }
+            return total;
+        }, countMoves(games));
+
+        run("ReversiGame.copy", () -> {
+            long total = 0;
+            for(ReversiGame game : games) {
+                total += game.copy().getHash();
+            }
+            return total;
+        }, games.length);
+
+        // play modifie la partie : le temps mesuré inclut la copie, à comparer avec ReversiGame.copy
+        run("ReversiGame.copy+play", () -> {
+            long total = 0;
+            for(int i = 0; i < games.length; i++) {
+                ReversiGame copy = games[i].copy();
+                copy.play(firstMoves[i]);
+                total += copy.getHash();
+            }
+            return total;
+        }, games.length);
+
+        run("Board.copy", () -> {
+            long total = 0;
+            for(ReversiGame game : games) {
+                Board copy = game.getBoard().copy();
+                total += copy.getHash();
+            }
+            return total;
+        }, games.length);
+
+        for(AbstractHeuristic heuristic : createHeuristics()) {
+            run(heuristic.getClass().getSimpleName() + ".evaluate", () -> evaluateAll(heuristic, games), games.length);
+        }
+
+        for(int depth : new int[] {1, 3, 5}) {
+            run("MiniMax.explore depth " + depth, () -> {
+                long total = 0;
+                for(ReversiGame game : games) {
+                    // nouvelle instance : la table de transposition ne doit pas servir d'une mesure à l'autre,
+                    // elle est petite pour que son allocation ne domine pas les recherches peu profondes
+                    MiniMax miniMax = new MiniMax(createComposite());
+                    miniMax.enableAlphaBeta();
+                    miniMax.enableTranspositionTable(12);
+                    miniMax.enableMoveOrdering(new HistoryMoveOrderer());
+
+                    MovePosition move = miniMax.explore(game, depth);
+                    total += move == null ? 0 : move.getRow() * 8 + move.getColumn();
+                }
+                return total;
+            }, games.length);
+        }
+    }
+
+    /**
+     * Mesure un benchmark et affiche le temps moyen par opération
+     * @param name nom du benchmark
+     * @param batch opérations à mesurer, renvoie une valeur dépendant de leur résultat
+     * @param operations nombre d'opérations effectuées par batch
+     */
+    private void run(String name, LongSupplier batch, int operations) {
+        if(!name.contains(mFilter))
+            return;
+
+        for(int i = 0; i < mWarmupIterations; i++) {
+            iteration(batch);
+        }
+
+        List<Double> samples = new ArrayList<>(mIterations);
+        long totalBatches = 0;
+        long allocated = 0;
+
+        for(int i = 0; i < mIterations; i++) {
+            long[] result = iteration(batch);
+            samples.add((double) result[0] / (result[1] * operations));
+            totalBatches += result[1];
+            allocated += result[2];
+        }
+
+        double mean = 0;
+        for(double sample : samples) {
+            mean += sample;
+        }
+        mean /= samples.size();
+
+        double variance = 0;
+        for(double sample : samples) {
+            variance += (sample - mean) * (sample - mean);
+        }
+        double stddev = samples.size() > 1 ? Math.sqrt(variance / (samples.size() - 1)) : 0;
+
+        String bytes = ALLOCATIONS == null ? "n/a" : String.format(Locale.ROOT, "%.1f", (double) allocated / (totalBatches * operations));
+        System.out.println(String.format(Locale.ROOT, "%-36s %14.1f %12.1f %14d %10s",
+            name, mean, stddev, totalBatches * operations, bytes));
+    }
+
+    /**
+     * Exécute le batch jusqu'à atteindre la durée d'une itération
+     * @return durée en nanosecondes, nombre de batchs exécutés et octets alloués
+     */
+    private long[] iteration(LongSupplier batch) {
+        long sink = 0;
+        long count = 0;
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long elapsed;
+
+        do {
+            sink += batch.getAsLong();
+            count++;
+            elapsed = System.nanoTime() - start;
+        } while(elapsed < mIterationNanos);
+
+        long allocated = allocatedBytes() - allocatedBefore;
+        sSink += sink;
+
+        return new long[] {elapsed, count, allocated};
+    }
+
+    /**
+     * Octets alloués jusqu'ici par le thread courant, 0 si la mesure n'est pas disponible
+     */
+    private static long allocatedBytes() {
+        return ALLOCATIONS == null ? 0 : ALLOCATIONS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Active le compteur d'allocation par thread de la JVM, s'il existe
+     */
+    private static com.sun.management.ThreadMXBean createAllocationCounter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if(!(bean instanceof com.sun.management.ThreadMXBean))
+            return null;
+
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) bean;
+        if(!allocations.isThreadAllocatedMemorySupported())
+            return null;
+
+        allocations.setThreadAllocatedMemoryEnabled(true);
+        return allocations;
+    }
+
+    /**
+     * Nombre total de coups possibles sur les positions données
+     */
+    private static int countMoves(ReversiGame[] games) {
+        int count = 0;
+        for(ReversiGame game : games) {
+            count += game.countMoves(game.getCurrentPlayer().getColor());
+        }
+
+        return count;
+    }
+
+    /**
+     * Heuristiques mesurées, chacune avec sa propre instance
+     */
+    private static List<AbstractHeuristic> createHeuristics() {
+        List<AbstractHeuristic> heuristics = new ArrayList<>();
+        heuristics.add(new MaximiseScoreHeuristic());
+        heuristics.add(new MobilityHeuristic());
+        heuristics.add(new CornersCapturedHeuristic());
+        heuristics.add(new FrontierHeuristic());
+        heuristics.add(createComposite());
+        heuristics.add(createPatterns());
+        return heuristics;
+    }
+
+    /**
+     * Heuristique composite utilisée par Program
+     */
+    static AbstractHeuristic createComposite() {
+        return HeuristicWeights.createDefault().createHeuristic();
+    }
+
+    /**
+     * Heuristique à motifs avec des poids aléatoires : la durée d'évaluation ne dépend pas des poids
+     */
+    static AbstractHeuristic createPatterns() {
+        Random random = new Random(0);
+        short[][][] tables = new short[4][Patterns.TYPE_COUNT][];
+        for(short[][] phase : tables) {
+            for(int type = 0; type < phase.length; type++) {
+                phase[type] = new short[Patterns.getTableSize(type)];
+                for(int i = 0; i < phase[type].length; i++) {
+                    phase[type][i] = (short) random.nextInt();
+                }
+            }
+        }
+
+        return new PatternHeuristic(new PatternWeights(tables, 1));
+    }
+}
@@ -0,0 +1,283 @@
+package reversi.bench;
+
+import reversi.MoveList;
+import reversi.MovePosition;
+import reversi.PieceColor;
+import reversi.ReversiGame;
+import reversi.heuristics.MaximiseScoreHeuristic;
+import reversi.players.AIPlayer;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Perft : compte les positions atteignables en un nombre de coups donné.
+ * Permet de vérifier la génération des coups d'un moteur de jeu (par comparaison avec des valeurs connues
+ * ou avec un autre moteur) et d'en mesurer la vitesse.
+ *
+ * Un tour passé compte comme un coup. Une partie terminée avant la profondeur demandée compte comme une feuille.
+ *
+ * Deux parcours sont disponibles :
+ * - par défaut, makeMove / undoMove sur une seule partie, comme les algorithmes de recherche ;
+ * - avec -copy, play(MovePosition) sur une copie de la partie à chaque coup, comme une vraie partie.
+ *
+ * Usage : java -cp bin reversi.bench.Perft [-copy] [-divide] [-check] [-size n] [-position plateau X|O] profondeur
+ */
+public final class Perft {
+
+    // valeurs connues pour la position de départ 8x8, index = profondeur
+    private static final long[] START_POSITION_COUNTS = {
+        1L, 4L, 12L, 56L, 244L, 1396L, 8200L, 55092L, 390216L, 3005288L, 24571284L, 212258800L
+    };
+
+    private final boolean mUseCopies;
+    private MoveList[] mMoveLists = new MoveList[0];
+
+    /**
+     * Constructeur
+     * @param useCopies vrai pour jouer les coups avec play sur des copies de la partie,
+     *                  faux pour utiliser makeMove / undoMove
+     */
+    public Perft(boolean useCopies) {
+        mUseCopies = useCopies;
+    }
+
+    public static void main(String[] args) {
+        boolean useCopies = false;
+        boolean divide = false;
+        boolean check = false;
+        int size = 8;
+        String position = null;
+        PieceColor toMove = PieceColor.White;
+        int depth = -1;
+
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "-copy":
+                    useCopies = true;
+                    break;
+                case "-divide":
+                    divide = true;
+                    break;
+                case "-check":
+                    check = true;
+                    break;
+                case "-size":
+                    size = Integer.parseInt(args[++i]);
+                    break;
+                case "-position":
+                    position = args[++i];
+                    toMove = "X".equals(args[++i]) ? PieceColor.Black : PieceColor.White;
+                    break;
+                default:
+                    depth = Integer.parseInt(args[i]);
+            }
+        }
+
+        if(depth < 0)
+            throw new IllegalArgumentException("depth must be given and cannot be negative");
+
+        Perft perft = new Perft(useCopies);
+
+        if(check) {
+            System.exit(perft.checkStartPosition(depth) ? 0 : 1);
+            return;
+        }
+
+        ReversiGame game = createGame(size);
+        if(position == null)
+            game.init();
+        else
+            game.setPosition(position, toMove);
+
+        if(divide)
+            perft.divide(game, depth);
+        else
+            perft.report(game, depth);
+    }
+
+    /**
+     * Compte les feuilles atteignables depuis la position donnée
+     * @param game partie, inchangée à la fin du calcul
+     * @param depth nombre de coups (tours passés compris)
+     * @return nombre de feuilles
+     */
+    public long perft(ReversiGame game, int depth) {
+        if(depth < 0)
+            throw new IllegalArgumentException("depth cannot be negative");
+
+        if(mUseCopies)
+            return perftCopy(game, depth);
+
+        ensureMoveLists(depth);
+        return perftMakeMove(game, depth);
+    }
+
+    /**
+     * Compare les comptes de la position de départ avec les valeurs connues jusqu'à la profondeur donnée
+     * @param maxDepth profondeur maximale
+     * @return vrai si tous les comptes sont corrects
+     */
+    public boolean checkStartPosition(int maxDepth) {
+        if(maxDepth >= START_POSITION_COUNTS.length)
+            throw new IllegalArgumentException("Known counts are available up to depth " + (START_POSITION_COUNTS.length - 1));
+
+        boolean ok = true;
+
+        for(int depth = 1; depth <= maxDepth; depth++) {
+            ReversiGame game = createGame(8);
+            game.init();
+
+            long start = System.nanoTime();
+            long nodes = perft(game, depth);
+            long elapsed = System.nanoTime() - start;
+
+            boolean match = nodes == START_POSITION_COUNTS[depth];
+            ok &= match;
+
+            System.out.println(String.format(Locale.ROOT, "perft(%d) = %d, expected %d %s (%s)",
+                depth, nodes, START_POSITION_COUNTS[depth], match ? "OK" : "FAILED", formatSpeed(nodes, elapsed)));
+        }
+
+        return ok;
+    }
+
+    /**
+     * Affiche le nombre de feuilles et la vitesse du parcours
+     */
+    private void report(ReversiGame game, int depth) {
+        long start = System.nanoTime();
+        long nodes = perft(game, depth);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println(String.format(Locale.ROOT, "perft(%d) = %d (%s)", depth, nodes, formatSpeed(nodes, elapsed)));
+    }
+
+    /**
+     * Affiche le nombre de feuilles atteignables après chaque coup de la racine
+     */
+    private void divide(ReversiGame game, int depth) {
+        if(depth == 0) {
+            report(game, depth);
+            return;
+        }
+
+        long start = System.nanoTime();
+        long total = 0;
+
+        List<MovePosition> moves = game.getPossibleMoves(game.getCurrentPlayer());
+        if(moves.isEmpty()) {
+            // un seul coup possible : passer son tour
+            ReversiGame child = game.copy();
+            String state = child.play(null);
+            long nodes = ReversiGame.GAME_FINISHED.equals(state) ? 1 : perft(child, depth - 1);
+            System.out.println("pass " + nodes);
+            total += nodes;
+        }
+
+        for(MovePosition move : moves) {
+            ReversiGame child = game.copy();
+            child.play(move);
+
+            long nodes = perft(child, depth - 1);
+            System.out.println(move + " " + nodes);
+            total += nodes;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        System.out.println(String.format(Locale.ROOT, "perft(%d) = %d (%s)", depth, total, formatSpeed(total, elapsed)));
+    }
+
+    /**
+     * Parcours par makeMove / undoMove
+     */
+    private long perftMakeMove(ReversiGame game, int depth) {
+        if(depth == 0)
+            return 1;
+
+        MoveList moves = mMoveLists[depth];
+        game.generateMoves(moves);
+
+        if(moves.isEmpty()) {
+            // aucun des deux joueurs ne peut jouer : la partie est terminée
+            if(!game.hasLastPlayerMoved())
+                return 1;
+
+            game.makePass();
+            long nodes = perftMakeMove(game, depth - 1);
+            game.undoMove();
+            return nodes;
+        }
+
+        // au dernier niveau, seul le nombre de coups compte
+        if(depth == 1)
+            return moves.size();
+
+        long nodes = 0;
+        for(int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves, i);
+            nodes += perftMakeMove(game, depth - 1);
+            game.undoMove();
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Parcours par play sur des copies de la partie
+     */
+    private long perftCopy(ReversiGame game, int depth) {
+        if(depth == 0)
+            return 1;
+
+        List<MovePosition> moves = game.getPossibleMoves(game.getCurrentPlayer());
+
+        if(moves.isEmpty()) {
+            ReversiGame child = game.copy();
+            if(ReversiGame.GAME_FINISHED.equals(child.play(null)))
+                return 1;
+
+            return perftCopy(child, depth - 1);
+        }
+
+        long nodes = 0;
+        for(MovePosition move : moves) {
+            ReversiGame child = game.copy();
+            child.play(move);
+            nodes += perftCopy(child, depth - 1);
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Alloue une liste de coups par niveau de profondeur
+     */
+    private void ensureMoveLists(int depth) {
+        if(mMoveLists.length > depth)
+            return;
+
+        mMoveLists = new MoveList[depth + 1];
+        for(int i = 0; i < mMoveLists.length; i++) {
+            mMoveLists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Crée une partie dont les joueurs sont peu coûteux à copier
+     */
+    private static ReversiGame createGame(int size) {
+        return new ReversiGame(
+            new AIPlayer(PieceColor.White, new MaximiseScoreHeuristic(), 1),
+            new AIPlayer(PieceColor.Black, new MaximiseScoreHeuristic(), 1),
+            size, size);
+    }
+
+    /**
+     * Formate la durée et le nombre de noeuds par seconde
+     */
+    private static String formatSpeed(long nodes, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        return String.format(Locale.ROOT, "%.3f s, %.0f nodes/s", seconds, seconds > 0 ? nodes / seconds : 0);
+    }
+}
@@ -0,0 +1,110 @@
+package reversi.bench;
+
+import reversi.PieceColor;
+import reversi.ReversiGame;
+import reversi.heuristics.MaximiseScoreHeuristic;
+import reversi.players.AIPlayer;
+
+/**
+ * Corpus de positions fixes utilisé par les benchmarks, de l'ouverture à la fin de partie.
+ * Les positions sont décrites en clair pour rester identiques quel que soit le moteur de jeu.
+ */
+public final class Positions {
+
+    // nombre de positions du corpus, constante pour les annotations des benchmarks JMH
+    public static final int COUNT = 8;
+
+    // position de départ puis positions atteintes après 6, 14, 22, 30, 38, 46 et 54 coups
+    private static final String[] BOARDS = {
+        null,
+
+        "--------" +
+        "--------" +
+        "----O---" +
+        "---OO---" +
+        "-XXOO---" +
+        "--X-----" +
+        "-OX-----" +
+        "--------",
+
+        "--------" +
+        "--OX----" +
+        "---X-O--" +
+        "---XO---" +
+        "OOOXX---" +
+        "--OX-X--" +
+        "--OO----" +
+        "---XO---",
+
+        "--------" +
+        "---X----" +
+        "-O--XXX-" +
+        "XOXXOX--" +
+        "-O-OX---" +
+        "-OOXX---" +
+        "-OXXXX--" +
+        "---OX-X-",
+
+        "--------" +
+        "XXX---O-" +
+        "X-X-OXO-" +
+        "XOOOXXO-" +
+        "--OXXO--" +
+        "-OXXXXXX" +
+        "O---O-OO" +
+        "--OOO---",
+
+        "O-X--O--" +
+        "OOXXO---" +
+        "OXOOXX--" +
+        "OOOOX---" +
+        "OOOOO---" +
+        "OOXXO---" +
+        "OOOXXXX-" +
+        "-OOOOOO-",
+
+        "XOOOOXXX" +
+        "XXXXXXX-" +
+        "XOOOOX--" +
+        "XOXOX-O-" +
+        "XXXXOOO-" +
+        "XXXOOOX-" +
+        "XXXO--OX" +
+        "XX--O---",
+
+        "--XXXO--" +
+        "--OOXOOO" +
+        "OOOOXXOO" +
+        "OOOXXXOO" +
+        "OOXXXXOO" +
+        "OXXOOXOO" +
+        "OXXOOOXO" +
+        "OXXXXXXX",
+    };
+
+    private Positions() {}
+
+    /**
+     * Crée une nouvelle partie pour chaque position du corpus
+     * @return parties prêtes à être jouées
+     */
+    public static ReversiGame[] create() {
+        ReversiGame[] games = new ReversiGame[BOARDS.length];
+
+        for(int i = 0; i < BOARDS.length; i++) {
+            // joueurs sans état : la copie d'une partie ne mesure que le moteur de jeu
+            ReversiGame game = new ReversiGame(
+                new AIPlayer(PieceColor.White, new MaximiseScoreHeuristic(), 1),
+                new AIPlayer(PieceColor.Black, new MaximiseScoreHeuristic(), 1));
+
+            if(BOARDS[i] == null)
+                game.init();
+            else
+                game.setPosition(BOARDS[i], PieceColor.White);
+
+            games[i] = game;
+        }
+
+        return games;
+    }
+}
@@ -0,0 +1,236 @@
+package reversi.bench;
+
+import reversi.MovePosition;
+import reversi.PieceColor;
+import reversi.ReversiGame;
+import reversi.heuristics.AbstractHeuristic;
+import reversi.heuristics.MaximiseScoreHeuristic;
+import reversi.heuristics.MobilityHeuristic;
+import reversi.players.AIPlayer;
+import reversi.players.HistoryMoveOrderer;
+import reversi.players.MiniMax;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Vérifie les résultats de MiniMax : à profondeur fixe, le score du coup choisi doit être exactement celui
+ * d'un Mini-Max de référence, sans élagage ni table, qui joue les coups avec play sur des copies de la partie.
+ *
+ * Les positions sont tirées au hasard (parties aléatoires à partir d'une graine) sur des plateaux 8x8, 6x6 et 10x10.
+ * Chaque position est explorée par MiniMax dans les configurations suivantes :
+ * - sans élagage ;
+ * - alpha-beta (PVS) ;
+ * - alpha-beta et table de transposition ;
+ * - alpha-beta, table de transposition et ordonnancement des coups ;
+ * - recherche parallèle (3 threads), avec une table conservée d'une position à l'autre.
+ *
+ * Le programme se termine avec le code 1 si un score diffère de la référence.
+ *
+ * Usage : java -cp bin reversi.bench.SearchCheck [-n positions] [-seed s]
+ */
+public final class SearchCheck {
+
+    // tailles des plateaux, et profondeur maximale explorée sur chacune
+    private static final int[] SIZES = {8, 6, 10};
+    private static final int[] MAX_DEPTHS = {5, 5, 4};
+
+    private static final String[] MODES = {"plain", "alphabeta", "table", "ordering", "parallel"};
+
+    private final Random mRandom;
+
+    private final AbstractHeuristic[] mHeuristics = {
+        new HashHeuristic(), new MaximiseScoreHeuristic(), new MobilityHeuristic()
+    };
+
+    // recherches parallèles réutilisées pour toutes les positions d'une taille et d'une heuristique,
+    // leur table reste remplie d'une position à l'autre
+    private final MiniMax[][] mParallel = new MiniMax[SIZES.length][mHeuristics.length];
+
+    /**
+     * Constructeur
+     * @param seed graine des positions et des profondeurs
+     */
+    public SearchCheck(long seed) {
+        mRandom = new Random(seed);
+    }
+
+    public static void main(String[] args) {
+        int positions = 200;
+        long seed = 1;
+
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "-n":
+                    positions = Integer.parseInt(args[++i]);
+                    break;
+                case "-seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        if(positions <= 0)
+            throw new IllegalArgumentException("positions must be a positive integer");
+
+        System.exit(new SearchCheck(seed).check(positions) ? 0 : 1);
+    }
+
+    /**
+     * Compare MiniMax et la référence sur des positions aléatoires
+     * @param positions nombre de positions
+     * @return vrai si tous les scores sont identiques
+     */
+    public boolean check(int positions) {
+        int[] mismatches = new int[MODES.length];
+        int cases = 0;
+        long start = System.nanoTime();
+
+        while(cases < positions) {
+            int size = mRandom.nextInt(SIZES.length);
+            ReversiGame game = randomPosition(SIZES[size]);
+            if(game == null)
+                continue;
+
+            int h = cases % mHeuristics.length;
+            AbstractHeuristic heuristic = mHeuristics[h];
+            int depth = 1 + mRandom.nextInt(MAX_DEPTHS[size]);
+            double expected = reference(game, heuristic, depth);
+
+            for(int mode = 0; mode < MODES.length; mode++) {
+                MiniMax search = mode == MODES.length - 1 ? parallelSearch(size, h) : createSearch(mode, heuristic);
+                MovePosition move = search.explore(game, depth);
+                double score = search.getLastScore();
+
+                if(move == null || Double.compare(score, expected) != 0) {
+                    mismatches[mode]++;
+                    System.out.println(String.format(Locale.ROOT, "MISMATCH %s %dx%d depth %d: %s instead of %s%n%s",
+                        MODES[mode], SIZES[size], SIZES[size], depth, score, expected, game));
+                }
+            }
+
+            cases++;
+        }
+
+        boolean ok = true;
+        for(int mode = 0; mode < MODES.length; mode++) {
+            ok &= mismatches[mode] == 0;
+            System.out.println(String.format(Locale.ROOT, "%-10s %d/%d %s",
+                MODES[mode], cases - mismatches[mode], cases, mismatches[mode] == 0 ? "OK" : "FAILED"));
+        }
+
+        System.out.println(String.format(Locale.ROOT, "%.3f s", (System.nanoTime() - start) / 1e9));
+        return ok;
+    }
+
+    /**
+     * Score de la position à la profondeur donnée, calculé par un Mini-Max (Negamax) complet sur des copies.
+     * Comme MiniMax, un tour passé compte comme un coup.
+     * @param game partie, non modifiée
+     * @param heuristic heuristique évaluant les feuilles du point de vue du joueur courant
+     * @param depth profondeur restante
+     * @return score de la position pour le joueur courant
+     */
+    private static double reference(ReversiGame game, AbstractHeuristic heuristic, int depth) {
+        if(depth == 0 || game.isGameOver())
+            return heuristic.evaluate(game);
+
+        List<MovePosition> moves = game.getPossibleMoves(game.getCurrentPlayer());
+
+        if(moves.isEmpty()) {
+            // aucun des deux joueurs ne peut jouer : la partie est terminée
+            if(!game.hasLastPlayerMoved())
+                return heuristic.evaluate(game);
+
+            ReversiGame child = game.copy();
+            child.play(null);
+            return -reference(child, heuristic, depth - 1);
+        }
+
+        double best = Double.NEGATIVE_INFINITY;
+        for(MovePosition move : moves) {
+            ReversiGame child = game.copy();
+            child.play(move);
+            best = Math.max(best, -reference(child, heuristic, depth - 1));
+        }
+
+        return best;
+    }
+
+    /**
+     * Crée une recherche séquentielle, sans table conservée entre les positions
+     */
+    private static MiniMax createSearch(int mode, AbstractHeuristic heuristic) {
+        MiniMax search = new MiniMax(heuristic);
+
+        if(mode >= 1)
+            search.enableAlphaBeta();
+        if(mode >= 2)
+            search.enableTranspositionTable(16);
+        if(mode >= 3)
+            search.enableMoveOrdering(new HistoryMoveOrderer());
+
+        return search;
+    }
+
+    /**
+     * Renvoie la recherche parallèle de la taille et de l'heuristique données,
+     * dont la table contient déjà les positions précédentes
+     */
+    private MiniMax parallelSearch(int size, int heuristic) {
+        if(mParallel[size][heuristic] == null) {
+            MiniMax search = new MiniMax(mHeuristics[heuristic]);
+            search.enableAlphaBeta();
+            search.enableTranspositionTable(16);
+            search.enableMoveOrdering(new HistoryMoveOrderer());
+            search.enableParallelSearch(3);
+            mParallel[size][heuristic] = search;
+        }
+
+        return mParallel[size][heuristic];
+    }
+
+    /**
+     * Joue une partie aléatoire et renvoie une position où le joueur courant a au moins un coup
+     * @param size taille du plateau
+     * @return position, null si la partie s'est terminée
+     */
+    private ReversiGame randomPosition(int size) {
+        ReversiGame game = new ReversiGame(
+            new AIPlayer(PieceColor.White, new MaximiseScoreHeuristic(), 1),
+            new AIPlayer(PieceColor.Black, new MaximiseScoreHeuristic(), 1),
+            size, size);
+        game.init();
+
+        int plies = mRandom.nextInt(size * size - 4);
+        for(int i = 0; i < plies && !game.isGameOver(); i++) {
+            List<MovePosition> moves = game.getPossibleMoves(game.getCurrentPlayer());
+            game.play(moves.isEmpty() ? null : moves.get(mRandom.nextInt(moves.size())));
+        }
+
+        if(game.isGameOver() || game.getPossibleMoves(game.getCurrentPlayer()).isEmpty())
+            return null;
+
+        return game;
+    }
+
+    /**
+     * Heuristique donnant un score pseudo-aléatoire, presque toujours différent, à chaque position :
+     * les égalités sont rares, une erreur de fenêtre ou de table se voit donc sur le score.
+     */
+    private static final class HashHeuristic extends AbstractHeuristic {
+
+        @Override
+        public double evaluate(ReversiGame game) {
+            return (double) ((game.getHash() * 0x9E3779B97F4A7C15L) >>> 44);
+        }
+
+        @Override
+        public AbstractHeuristic copy() {
+            return this;
+        }
+    }
+}
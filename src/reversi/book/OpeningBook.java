@@ -0,0 +1,176 @@
+package reversi.book;
+
+import reversi.MoveList;
+import reversi.MovePosition;
+import reversi.ReversiGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bibliothèque d'ouvertures
+ * Associe des positions, identifiées par leur clé de hachage (ReversiGame.getHash), aux statistiques
+ * des coups joués depuis ces positions : nombre de parties et points obtenus par le joueur ayant joué le coup.
+ *
+ * Le fichier est projeté en mémoire (MappedByteBuffer) et n'est jamais recopié : les enregistrements,
+ * triés par clé puis par case, sont trouvés par recherche dichotomique. Le fichier n'est lu que par des accès absolus,
+ * une même instance peut donc être partagée entre threads, et plusieurs JVM partagent les pages du fichier en cache.
+ *
+ * Format du fichier (gros-boutiste) : MAGIC, VERSION, nombre de lignes, nombre de colonnes, nombre d'enregistrements (int),
+ * puis les enregistrements de RECORD_SIZE octets : clé (long), case (short, ligne * colonnes + colonne),
+ * parties (int), points (int, 2 par victoire et 1 par égalité).
+ */
+public final class OpeningBook {
+
+    static final int MAGIC = 0x5256424B;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 5 * Integer.BYTES;
+    static final int RECORD_SIZE = Long.BYTES + Short.BYTES + 2 * Integer.BYTES;
+
+    private final ByteBuffer mBuffer;
+    private final int mRows;
+    private final int mColumns;
+    private final int mSize;
+
+    private OpeningBook(ByteBuffer buffer, int rows, int columns, int size) {
+        mBuffer = buffer;
+        mRows = rows;
+        mColumns = columns;
+        mSize = size;
+    }
+
+    /**
+     * Ouvre une bibliothèque en projetant son fichier en mémoire
+     * @param file chemin du fichier
+     * @return bibliothèque
+     * @throws IOException si le fichier ne peut pas être lu ou n'est pas une bibliothèque d'ouvertures
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if(channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE)
+                throw new IOException(file + " is not an opening book");
+
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if(buffer.getInt(0) != MAGIC)
+            throw new IOException(file + " is not an opening book");
+
+        int version = buffer.getInt(Integer.BYTES);
+        if(version != VERSION)
+            throw new IOException("Unsupported opening book version " + version);
+
+        int rows = buffer.getInt(2 * Integer.BYTES);
+        int columns = buffer.getInt(3 * Integer.BYTES);
+        int size = buffer.getInt(4 * Integer.BYTES);
+        if(rows <= 0 || columns <= 0 || size < 0 || (long) size * RECORD_SIZE != buffer.capacity() - HEADER_SIZE)
+            throw new IOException("Invalid opening book header in " + file);
+
+        return new OpeningBook(buffer, rows, columns, size);
+    }
+
+    /**
+     * @return nombre de lignes du plateau des positions de la bibliothèque
+     */
+    public int getRows() {
+        return mRows;
+    }
+
+    /**
+     * @return nombre de colonnes du plateau des positions de la bibliothèque
+     */
+    public int getColumns() {
+        return mColumns;
+    }
+
+    /**
+     * @return nombre d'enregistrements (couples position, coup)
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Choisit le coup de la bibliothèque ayant obtenu le meilleur score moyen depuis la position de la partie
+     * @param game partie en cours
+     * @param minGames nombre minimal de parties pour qu'un coup soit retenu
+     * @return coup à jouer, null si la position n'est pas dans la bibliothèque ou si aucun coup n'a assez de parties
+     */
+    public MovePosition getMove(ReversiGame game, int minGames) {
+        if(game.getRows() != mRows || game.getColumns() != mColumns)
+            return null;
+
+        long key = game.getHash();
+        int first = find(key);
+        if(first < 0)
+            return null;
+
+        MoveList moves = new MoveList();
+        game.generateMoves(moves);
+
+        int bestSquare = -1;
+        double bestScore = -1;
+        int bestGames = 0;
+
+        for(int i = first; i < mSize && getKey(i) == key; i++) {
+            int games = getGames(i);
+            int square = getSquare(i);
+
+            // une collision de clés peut désigner un coup impossible dans cette partie
+            if(games < minGames || moves.indexOf(square / mColumns, square % mColumns) < 0)
+                continue;
+
+            double score = getPoints(i) / (2.0 * games);
+            if(score > bestScore || (score == bestScore && games > bestGames)) {
+                bestSquare = square;
+                bestScore = score;
+                bestGames = games;
+            }
+        }
+
+        return bestSquare < 0 ? null : new MovePosition(bestSquare / mColumns, bestSquare % mColumns);
+    }
+
+    /**
+     * Recherche dichotomique du premier enregistrement d'une position
+     * @return index de l'enregistrement, -1 si la position est absente
+     */
+    int find(long key) {
+        int low = 0, high = mSize;
+
+        while(low < high) {
+            int middle = (low + high) >>> 1;
+            if(getKey(middle) < key)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        return low < mSize && getKey(low) == key ? low : -1;
+    }
+
+    long getKey(int index) {
+        return mBuffer.getLong(offset(index));
+    }
+
+    int getSquare(int index) {
+        return mBuffer.getShort(offset(index) + Long.BYTES);
+    }
+
+    int getGames(int index) {
+        return mBuffer.getInt(offset(index) + Long.BYTES + Short.BYTES);
+    }
+
+    int getPoints(int index) {
+        return mBuffer.getInt(offset(index) + Long.BYTES + Short.BYTES + Integer.BYTES);
+    }
+
+    private static int offset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,256 @@
+package reversi.book;
+
+import reversi.MovePosition;
+import reversi.PieceColor;
+import reversi.ReversiGame;
+import reversi.heuristics.HeuristicWeights;
+import reversi.players.AIPlayer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Construction d'une bibliothèque d'ouvertures (voir OpeningBook)
+ * Les statistiques des coups sont accumulées en mémoire, à partir d'une bibliothèque existante
+ * et de parties jouées par l'IA contre elle-même, puis écrites triées dans un nouveau fichier.
+ *
+ * Chaque partie commence par quelques coups aléatoires pour varier les ouvertures, puis chaque joueur
+ * est une IA (heuristique composite par défaut) dont les coups de même score sont départagés au hasard.
+ * Les premiers coups de chaque partie sont enregistrés avec le résultat final pour le joueur qui les a joués.
+ *
+ * Usage : java -cp bin reversi.book.OpeningBookBuilder [-games n] [-depth d] [-plies p] [-random r]
+ *         [-threads n] [-seed s] [-size n] [-book fichier] -out fichier
+ */
+public final class OpeningBookBuilder {
+
+    private final int mRows;
+    private final int mColumns;
+
+    // statistiques {parties, points} de chaque coup, par position
+    private final Map<Long, Map<Integer, int[]>> mPositions = new HashMap<>();
+
+    /**
+     * Constructeur
+     * @param rows nombre de lignes du plateau
+     * @param columns nombre de colonnes du plateau
+     */
+    public OpeningBookBuilder(int rows, int columns) {
+        if(rows <= 0 || columns <= 0 || rows * columns > Short.MAX_VALUE)
+            throw new IllegalArgumentException("Invalid board size " + rows + "x" + columns);
+
+        mRows = rows;
+        mColumns = columns;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int games = 1000, depth = 4, plies = 16, random = 6, size = 8;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 0;
+        String book = null, output = null;
+
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "-games":
+                    games = Integer.parseInt(args[++i]);
+                    break;
+                case "-depth":
+                    depth = Integer.parseInt(args[++i]);
+                    break;
+                case "-plies":
+                    plies = Integer.parseInt(args[++i]);
+                    break;
+                case "-random":
+                    random = Integer.parseInt(args[++i]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "-size":
+                    size = Integer.parseInt(args[++i]);
+                    break;
+                case "-book":
+                    book = args[++i];
+                    break;
+                case "-out":
+                    output = args[++i];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        if(output == null)
+            throw new IllegalArgumentException("An output book file must be given with -out");
+
+        if(games < 0 || depth <= 0 || plies <= 0 || random < 0 || threads <= 0)
+            throw new IllegalArgumentException("games and random cannot be negative, depth, plies and threads must be positive");
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(size, size);
+        if(book != null)
+            builder.add(OpeningBook.open(Paths.get(book)));
+
+        long time = System.nanoTime();
+        builder.playGames(games, depth, plies, random, seed, threads);
+        builder.write(Paths.get(output));
+
+        System.out.println(String.format(Locale.ROOT, "%d games in %.1f s, %d positions written to %s",
+            games, (System.nanoTime() - time) / 1e9, builder.mPositions.size(), output));
+    }
+
+    /**
+     * Ajoute les statistiques d'une bibliothèque existante
+     * @param book bibliothèque
+     */
+    public void add(OpeningBook book) {
+        if(book.getRows() != mRows || book.getColumns() != mColumns)
+            throw new IllegalArgumentException("Book board size " + book.getRows() + "x" + book.getColumns()
+                + " does not match " + mRows + "x" + mColumns);
+
+        for(int i = 0; i < book.size(); i++) {
+            add(book.getKey(i), book.getSquare(i), book.getGames(i), book.getPoints(i));
+        }
+    }
+
+    /**
+     * Ajoute le résultat de coups joués depuis une position
+     * @param key clé de hachage de la position (ReversiGame.getHash)
+     * @param square case jouée (ligne * colonnes + colonne)
+     * @param games nombre de parties
+     * @param points points obtenus par le joueur ayant joué le coup, 2 par victoire et 1 par égalité
+     */
+    public void add(long key, int square, int games, int points) {
+        if(square < 0 || square >= mRows * mColumns)
+            throw new IllegalArgumentException("Invalid square " + square);
+
+        int[] stats = mPositions.computeIfAbsent(key, k -> new HashMap<>()).computeIfAbsent(square, s -> new int[2]);
+        stats[0] += games;
+        stats[1] += points;
+    }
+
+    /**
+     * Joue des parties de l'IA contre elle-même, en parallèle, et ajoute leurs premiers coups
+     * @param games nombre de parties
+     * @param depth profondeur de recherche des joueurs
+     * @param plies nombre de coups enregistrés au début de chaque partie
+     * @param random nombre de coups aléatoires au début de chaque partie
+     * @param seed graine des tirages aléatoires
+     * @param threads nombre de threads
+     */
+    public void playGames(int games, int depth, int plies, int random, long seed, int threads) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<List<long[]>>> results = new ArrayList<>(games);
+            for(int game = 0; game < games; game++) {
+                long gameSeed = seed * 31 + game;
+                results.add(executor.submit(() -> playGame(gameSeed, depth, plies, random)));
+            }
+
+            for(Future<List<long[]>> result : results) {
+                for(long[] move : result.get()) {
+                    add(move[0], (int) move[1], 1, (int) move[2]);
+                }
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Book building interrupted", e);
+        } catch(ExecutionException e) {
+            throw new IllegalStateException("Book game failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Écrit la bibliothèque, les enregistrements étant triés par clé puis par case
+     * @param file chemin du fichier
+     * @throws IOException si le fichier ne peut pas être écrit
+     */
+    public void write(Path file) throws IOException {
+        TreeMap<Long, Map<Integer, int[]>> sorted = new TreeMap<>(mPositions);
+
+        int count = 0;
+        for(Map<Integer, int[]> moves : sorted.values()) {
+            count += moves.size();
+        }
+
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeInt(mRows);
+            out.writeInt(mColumns);
+            out.writeInt(count);
+
+            for(Map.Entry<Long, Map<Integer, int[]>> position : sorted.entrySet()) {
+                for(Map.Entry<Integer, int[]> move : new TreeMap<>(position.getValue()).entrySet()) {
+                    out.writeLong(position.getKey());
+                    out.writeShort(move.getKey());
+                    out.writeInt(move.getValue()[0]);
+                    out.writeInt(move.getValue()[1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Joue une partie et renvoie ses premiers coups : {clé de la position, case, points du joueur}
+     */
+    private List<long[]> playGame(long seed, int depth, int plies, int random) {
+        AIPlayer white = new AIPlayer(PieceColor.White, HeuristicWeights.createDefault().createHeuristic(), depth);
+        AIPlayer black = new AIPlayer(PieceColor.Black, HeuristicWeights.createDefault().createHeuristic(), depth);
+        white.setSeed(seed);
+        black.setSeed(seed + 1);
+
+        ReversiGame game = new ReversiGame(white, black, mRows, mColumns);
+        game.init();
+
+        Random generator = new Random(seed);
+        List<long[]> moves = new ArrayList<>();
+        List<PieceColor> colors = new ArrayList<>();
+
+        for(int ply = 0; !game.isGameOver(); ply++) {
+            MovePosition move;
+            if(ply < random) {
+                List<MovePosition> possibleMoves = game.getPossibleMoves(game.getCurrentPlayer());
+                move = possibleMoves.isEmpty() ? null : possibleMoves.get(generator.nextInt(possibleMoves.size()));
+            } else {
+                move = game.getCurrentPlayer().playTurn(game);
+            }
+
+            if(ply < plies && move != null) {
+                moves.add(new long[] {game.getHash(), move.getRow() * mColumns + move.getColumn(), 0});
+                colors.add(game.getCurrentPlayer().getColor());
+            }
+
+            game.play(move);
+        }
+
+        int whiteScore = game.getScore(PieceColor.White);
+        int blackScore = game.getScore(PieceColor.Black);
+
+        for(int i = 0; i < moves.size(); i++) {
+            int diff = colors.get(i) == PieceColor.White ? whiteScore - blackScore : blackScore - whiteScore;
+            moves.get(i)[2] = diff > 0 ? 2 : diff == 0 ? 1 : 0;
+        }
+
+        return moves;
+    }
+}
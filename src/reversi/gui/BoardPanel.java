@@ -1,7 +1,8 @@
 package reversi.gui;
 
+import reversi.Board;
+import reversi.MoveList;
 import reversi.MovePosition;
-import reversi.Piece;
 import reversi.PieceColor;
 import reversi.ReversiGame;
 
@@ -9,7 +10,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.util.List;
+import java.awt.image.BufferedImage;
 
 public class BoardPanel extends JPanel {
     private int mWidth;
@@ -18,6 +19,21 @@ public class BoardPanel extends JPanel {
     private BoardPanelListener mPanelListener = null;
     private boolean enableAvailableMoves = false;
 
+    // content of each cell: piece color and available move flag
+    private static final int CELL_WHITE = 1;
+    private static final int CELL_BLACK = 2;
+    private static final int CELL_PIECE = CELL_WHITE | CELL_BLACK;
+    private static final int CELL_MOVE = 4;
+
+    // cells of the game state last read by setBoard, enableAvailableMoves or boardChanged,
+    // null when no game is bound
+    private int[] mCells = null;
+
+    // grid drawn once for the board size
+    private BufferedImage mGridImage = null;
+    private int mGridRows = 0;
+    private int mGridColumns = 0;
+
     /**
      * Constructor
      * @param width panel width
@@ -31,6 +47,7 @@ public class BoardPanel extends JPanel {
         mWidth = width;
 
         setBorder(BorderFactory.createLineBorder(Color.BLACK));
+        setDoubleBuffered(true);
 
         setBackground(new Color(60, 133, 26));
         setPreferredSize(new Dimension(mWidth, mHeight));
@@ -69,6 +86,8 @@ public class BoardPanel extends JPanel {
      */
     public void setBoard(ReversiGame game) {
         mGame = game;
+        mCells = game == null ? null : readCells();
+        repaint();
     }
 
     public void setBoardListener(BoardPanelListener listener) {
@@ -81,32 +100,74 @@ public class BoardPanel extends JPanel {
      */
     public void enableAvailableMoves(boolean flag) {
         enableAvailableMoves = flag;
+        if(mGame != null)
+            mCells = readCells();
+        repaint();
+    }
+
+    /**
+     * Signal that the game state changed (a move was played).
+     * The cells are read again and only those whose piece or move hint changed are repainted.
+     */
+    public void boardChanged() {
+        if(mGame == null)
+            return;
+
+        int[] previous = mCells;
+        mCells = readCells();
+
+        if(previous == null || previous.length != mCells.length) {
+            repaint();
+            return;
+        }
+
+        int cols = mGame.getBoard().getColumns();
+        for(int square = 0; square < mCells.length; square++) {
+            if(mCells[square] != previous[square])
+                repaintCell(square / cols, square % cols);
+        }
     }
 
     /**
-     * Renders a board
+     * Renders a board.
+     * The grid comes from a cached image, pieces and move hints are drawn from the cached cells,
+     * only for the cells inside the clip area. Painting has no side effect on the cells:
+     * they are only read again by setBoard, enableAvailableMoves and boardChanged.
      */
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
-        ((Graphics2D)g).setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        if(mGame != null) {
-            makeGrid(g);
-            makePieces(g);
-            if(enableAvailableMoves)
-                makeAvailableMoves(g);
-        } else {
+        if(mGame == null || mCells == null) {
             System.out.println("No board bound to BoardPanel...");
+            return;
         }
+
+        g.drawImage(getGridImage(), 0, 0, null);
+
+        ((Graphics2D)g).setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        makePieces(g);
     }
 
     /**
-     * Draw the grid
+     * Return the grid image, drawn again only when the board size changes
      */
-    private void makeGrid(Graphics g) {
+    private BufferedImage getGridImage() {
         int rows = mGame.getBoard().getRows();
         int cols = mGame.getBoard().getColumns();
-        int rowSize = mHeight / mGame.getBoard().getRows();
-        int colSize = mWidth / mGame.getBoard().getColumns();
+
+        if(mGridImage != null && mGridRows == rows && mGridColumns == cols)
+            return mGridImage;
+
+        int rowSize = mHeight / rows;
+        int colSize = mWidth / cols;
+
+        mGridImage = new BufferedImage(mWidth + 1, mHeight + 1, BufferedImage.TYPE_INT_RGB);
+        mGridRows = rows;
+        mGridColumns = cols;
+
+        Graphics g = mGridImage.getGraphics();
+        g.setColor(getBackground());
+        g.fillRect(0, 0, mWidth + 1, mHeight + 1);
+        g.setColor(getForeground());
 
         // draw lines separator
         for(int i = 1; i <= rows; i++) {
@@ -117,63 +178,93 @@ public class BoardPanel extends JPanel {
         for(int i = 1; i <= cols; i++) {
             g.drawLine(colSize*i, 0, colSize*i, mHeight);
         }
+
+        g.dispose();
+        return mGridImage;
     }
 
     /**
-     * Draw the pieces
+     * Draw the pieces and the available moves of the cells inside the clip area
      */
     private void makePieces(Graphics g) {
         int rows = mGame.getBoard().getRows();
         int cols = mGame.getBoard().getColumns();
-        int rowSize = mHeight / mGame.getBoard().getRows();
-        int colSize = mWidth / mGame.getBoard().getColumns();
+        int rowSize = mHeight / rows;
+        int colSize = mWidth / cols;
 
         int pieceRadius = rowSize / 2;
 
-        // draw lines separator
-        for(int row = 0; row < cols; row++) {
-            for(int col = 0; col < rows; col++) {
-                int x = colSize * col + pieceRadius - pieceRadius/2;
-                int y = rowSize * row + pieceRadius - pieceRadius/2;
-
-                Piece p = mGame.getBoard().getPiece(row, col);
-                if(p != null) {
-                    if(p.getColor() == PieceColor.White) {
-                        g.setColor(Color.WHITE);
-                        g.fillOval(x, y, pieceRadius, pieceRadius);
-                    }
-                    else {
-                        g.setColor(Color.BLACK);
-                        g.fillOval(x, y, pieceRadius, pieceRadius);
-                    }
+        Rectangle clip = g.getClipBounds();
+        int firstRow = 0, lastRow = rows - 1, firstCol = 0, lastCol = cols - 1;
+        if(clip != null) {
+            firstRow = Math.max(0, clip.y / rowSize);
+            lastRow = Math.min(rows - 1, (clip.y + clip.height) / rowSize);
+            firstCol = Math.max(0, clip.x / colSize);
+            lastCol = Math.min(cols - 1, (clip.x + clip.width) / colSize);
+        }
+
+        for(int row = firstRow; row <= lastRow; row++) {
+            for(int col = firstCol; col <= lastCol; col++) {
+                int cell = mCells[row * cols + col];
+
+                if((cell & CELL_PIECE) != 0) {
+                    int x = colSize * col + pieceRadius - pieceRadius/2;
+                    int y = rowSize * row + pieceRadius - pieceRadius/2;
+
+                    g.setColor((cell & CELL_PIECE) == CELL_WHITE ? Color.WHITE : Color.BLACK);
+                    g.fillOval(x, y, pieceRadius, pieceRadius);
 
                     g.setColor(Color.black);
                     g.drawArc(x, y, pieceRadius, pieceRadius, 0, 360);
+                } else if((cell & CELL_MOVE) != 0) {
+                    int x = colSize * col + pieceRadius - pieceRadius/8;
+                    int y = rowSize * row + pieceRadius - pieceRadius/8;
+
+                    g.setColor(Color.RED);
+                    g.drawRect(x, y, pieceRadius/4, pieceRadius/4);
                 }
             }
         }
     }
 
     /**
-     * Draws the available moves
+     * Read the pieces and, if enabled, the available moves of the current game state.
+     * Moves are generated once per state instead of on every repaint.
+     * @return content of each cell
      */
-    private void makeAvailableMoves(Graphics g) {
-        int rows = mGame.getBoard().getRows();
-        int cols = mGame.getBoard().getColumns();
-        int rowSize = mHeight / mGame.getBoard().getRows();
-        int colSize = mWidth / mGame.getBoard().getColumns();
+    private int[] readCells() {
+        Board board = mGame.getBoard();
+        int rows = board.getRows();
+        int cols = board.getColumns();
+
+        int[] cells = new int[rows * cols];
+        for(int row = 0; row < rows; row++) {
+            for(int col = 0; col < cols; col++) {
+                PieceColor c = board.getPieceColor(row, col);
+                if(c != null)
+                    cells[row * cols + col] = c == PieceColor.White ? CELL_WHITE : CELL_BLACK;
+            }
+        }
 
-        int pieceRadius = rowSize / 2;
+        if(enableAvailableMoves && !mGame.isGameOver()) {
+            MoveList moves = mGame.generateMoves();
+            for(int i = 0; i < moves.size(); i++) {
+                cells[moves.getSquare(i)] |= CELL_MOVE;
+            }
+        }
 
-        List<MovePosition> availableMoves = mGame.getPossibleMoves(mGame.getCurrentPlayer());
+        return cells;
+    }
 
-        for(MovePosition move : availableMoves) {
-            int x = colSize * move.getColumn() + pieceRadius - pieceRadius/8;
-            int y = rowSize * move.getRow() + pieceRadius - pieceRadius/8;
+    /**
+     * Schedule the repaint of a single cell
+     */
+    private void repaintCell(int row, int col) {
+        int rowSize = mHeight / mGame.getBoard().getRows();
+        int colSize = mWidth / mGame.getBoard().getColumns();
 
-            g.setColor(Color.RED);
-            g.drawRect(x, y, pieceRadius/4, pieceRadius/4);
-        }
+        // the piece outline may overflow the cell by one pixel
+        repaint(colSize * col, rowSize * row, colSize + 1, rowSize + 1);
     }
 
     /**
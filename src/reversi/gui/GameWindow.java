@@ -6,11 +6,12 @@ import com.intellij.uiDesigner.core.Spacer;
 import reversi.MovePosition;
 import reversi.PieceColor;
 import reversi.ReversiGame;
-import reversi.heuristics.CornersCapturedHeuristic;
 import reversi.players.AIPlayer;
 import reversi.players.ConsolePlayer;
 import reversi.players.PlayerInterface;
+import reversi.players.SearchListener;
 import reversi.heuristics.CompositeHeurstic;
+import reversi.heuristics.HeuristicWeights;
 import reversi.heuristics.MaximiseScoreHeuristic;
 import reversi.heuristics.MobilityHeuristic;
 
@@ -18,6 +19,8 @@ import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import java.awt.*;
 import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 public class GameWindow {
     // UI components
@@ -37,6 +40,9 @@ public class GameWindow {
     private PlayerInterface mPlayer2;
     private ReversiGame mGame;
 
+    // computer move searched in the background, null when no search is running
+    private SwingWorker<MovePosition, String> mComputerMove = null;
+
     /**
      * Constructor.
      * Create game instances bind action listeners
@@ -98,15 +104,89 @@ public class GameWindow {
     }
 
     /**
-     * Play the next turn
+     * Play the next turn.
+     * A computer player searches its move on a background thread, the move is played once the search is over.
      */
     private void play(MovePosition pos) {
-        MovePosition position = pos;
+        if (mComputerMove != null) {
+            mStatusBar.setWarningMessage("Wait for the computer's move");
+            return;
+        }
+
+        PlayerInterface player = mGame.getCurrentPlayer();
 
-        if (mGame.getCurrentPlayer() instanceof AIPlayer) {
-            position = mGame.getCurrentPlayer().playTurn(mGame);
+        if (player instanceof AIPlayer) {
+            searchMove((AIPlayer) player);
+        } else {
+            playMove(player, pos);
         }
+    }
+
+    /**
+     * Search the move of a computer player off the Event Dispatch Thread.
+     * The search progress (depth and best move so far) is shown in the status bar.
+     * The search is cancelled when a new game starts.
+     *
+     * @param player computer player whose turn it is
+     */
+    private void searchMove(AIPlayer player) {
+        ReversiGame game = mGame;
+
+        // the search works on its own copy, the board keeps being painted from the game
+        ReversiGame position = mGame.copy();
+
+        mStatusBar.setInfoMessage(player.getColor() + " Player is thinking...");
+
+        mComputerMove = new SwingWorker<MovePosition, String>() {
+            @Override
+            protected MovePosition doInBackground() {
+                SearchListener listener = (depth, bestMove, score) ->
+                    publish(player.getColor() + " Player is thinking... depth " + depth + ", best move " + bestMove);
+
+                player.setSearchListener(listener);
+                try {
+                    return player.playTurn(position);
+                } finally {
+                    player.setSearchListener(null);
+                }
+            }
+
+            @Override
+            protected void process(List<String> messages) {
+                if (!isCancelled() && mGame == game) {
+                    mStatusBar.setInfoMessage(messages.get(messages.size() - 1));
+                }
+            }
+
+            @Override
+            protected void done() {
+                if (mComputerMove == this) {
+                    mComputerMove = null;
+                }
 
+                // the search was cancelled by a new game
+                if (isCancelled() || mGame != game) {
+                    return;
+                }
+
+                try {
+                    playMove(player, get());
+                } catch (InterruptedException | ExecutionException e) {
+                    mStatusBar.setErrorMessage("Computer player failed: " + e.getCause());
+                }
+            }
+        };
+
+        mComputerMove.execute();
+    }
+
+    /**
+     * Play a move for the current player and refresh the interface
+     *
+     * @param player   current player
+     * @param position move to play
+     */
+    private void playMove(PlayerInterface player, MovePosition position) {
         System.out.println(position);
 
         switch (mGame.play(position)) {
@@ -124,6 +204,11 @@ public class GameWindow {
                 break;
         }
 
+        // the computer keeps thinking while the human player chooses a move
+        if (player instanceof AIPlayer) {
+            ((AIPlayer) player).ponder(mGame);
+        }
+
         refreshUI();
 
         Timer t = new Timer(1500, e -> mStatusBar.setInfoMessage(mGame.getCurrentPlayer().getColor() + " Player's turn"));
@@ -138,6 +223,15 @@ public class GameWindow {
     private void newGame() {
         System.out.println("StartiTng new game");
 
+        // interrupt the search of the previous game, its move is discarded
+        if (mComputerMove != null) {
+            mComputerMove.cancel(true);
+            mComputerMove = null;
+        }
+
+        closePlayer(mPlayer1);
+        closePlayer(mPlayer2);
+
         mPlayer1 = createPlayer(
             String.valueOf(mPlayer1Type.getSelectedItem()),
             String.valueOf(mPlayer1Difficulty.getSelectedItem()),
@@ -157,8 +251,6 @@ public class GameWindow {
         mBoardPanel.setBoard(mGame);
         mBoardPanel.enableAvailableMoves(true);
 
-        mGame.getPossibleMoves(mGame.getCurrentPlayer());
-
         mStatusBar.setInfoMessage(mGame.getCurrentPlayer().getColor() + " Player's turn");
 
         refreshUI();
@@ -189,11 +281,12 @@ public class GameWindow {
 
                     case "Hard":
                     default:
-                        CompositeHeurstic hardHeuristic = new CompositeHeurstic();
-                        hardHeuristic.addHeuristic(new MaximiseScoreHeuristic(), 10);
-                        hardHeuristic.addHeuristic(new MobilityHeuristic(), 78.922);
-                        hardHeuristic.addHeuristic(new CornersCapturedHeuristic(), 801.724);
-                        return new AIPlayer(c, hardHeuristic, 4);
+                        CompositeHeurstic hardHeuristic = HeuristicWeights.createDefault().createHeuristic();
+                        AIPlayer hardPlayer = new AIPlayer(c, hardHeuristic, 4);
+                        hardPlayer.setThreads(Runtime.getRuntime().availableProcessors());
+                        hardPlayer.setPondering(true);
+                        hardPlayer.enableEndgameSolver();
+                        return hardPlayer;
                 }
 
             default:
@@ -201,6 +294,17 @@ public class GameWindow {
         }
     }
 
+    /**
+     * Stop the background thinking and the search threads of a computer player from the previous game
+     *
+     * @param player player of the previous game, may be null
+     */
+    private void closePlayer(PlayerInterface player) {
+        if (player instanceof AIPlayer) {
+            ((AIPlayer) player).close();
+        }
+    }
+
     /**
      * Refresh Interface after data changed
      */
@@ -209,8 +313,8 @@ public class GameWindow {
         mP1ScoreLabel.setText("" + mPlayer1.getScore());
         mP2ScoreLabel.setText("" + mPlayer2.getScore());
 
-        // refresh board
-        mPanel.repaint();
+        // refresh board: only the cells changed by the last move are repainted
+        mBoardPanel.boardChanged();
     }
 
     /**
@@ -10,6 +10,25 @@ public abstract class AbstractHeuristic {
      */
     public abstract double evaluate(ReversiGame game);
 
+    /**
+     * Évalue la position à partir de caractéristiques déjà calculées, partagées avec d'autres heuristiques
+     * (voir CompositeHeurstic). Par défaut, la position est évaluée directement.
+     * @param game instance du jeu
+     * @param features caractéristiques de la position, contenant au moins celles de getFeatures()
+     * @return score
+     */
+    public double evaluate(ReversiGame game, PositionFeatures features) {
+        return evaluate(game);
+    }
+
+    /**
+     * Caractéristiques de PositionFeatures lues par evaluate(game, features)
+     * @return combinaison de PositionFeatures.DISCS, MOBILITY, CORNERS et FRONTIER, 0 pour aucune
+     */
+    public int getFeatures() {
+        return 0;
+    }
+
     /**
      * Copie de l'instance
      * @return nouvelle instante
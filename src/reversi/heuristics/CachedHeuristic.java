@@ -0,0 +1,52 @@
+package reversi.heuristics;
+
+import reversi.ReversiGame;
+
+/**
+ * Cette heuristique mémorise les évaluations d'une autre heuristique dans un EvaluationCache,
+ * pour ne pas réévaluer une position déjà rencontrée (autre itération, autre branche de l'arbre).
+ * Les copies partagent le même cache et ont chacune une copie de l'heuristique évaluée :
+ * elles peuvent être utilisées par plusieurs threads d'une recherche parallèle.
+ */
+public class CachedHeuristic extends AbstractHeuristic {
+    private final AbstractHeuristic mHeuristic;
+    private final EvaluationCache mCache;
+
+    /**
+     * Constructeur
+     * @param heuristic heuristique dont les évaluations sont mémorisées
+     * @param cache cache utilisé, peut être partagé avec d'autres instances de la même heuristique
+     */
+    public CachedHeuristic(AbstractHeuristic heuristic, EvaluationCache cache) {
+        if(heuristic == null || cache == null)
+            throw new IllegalArgumentException("Null parameter given to CachedHeuristic");
+
+        mHeuristic = heuristic;
+        mCache = cache;
+    }
+
+    @Override
+    public double evaluate(ReversiGame game) {
+        long key = game.getHash();
+
+        double evaluation = mCache.get(key);
+        if(Double.isNaN(evaluation)) {
+            evaluation = mHeuristic.evaluate(game);
+            mCache.put(key, evaluation);
+        }
+
+        return evaluation;
+    }
+
+    /**
+     * @return cache des évaluations
+     */
+    public EvaluationCache getCache() {
+        return mCache;
+    }
+
+    @Override
+    public AbstractHeuristic copy() {
+        return new CachedHeuristic(mHeuristic.copy(), mCache);
+    }
+}
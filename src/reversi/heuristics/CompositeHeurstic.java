@@ -2,15 +2,24 @@ package reversi.heuristics;
 
 import reversi.ReversiGame;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
 
 /**
  * Une heuristique composite est une heuristique composée de plusieurs autres heuristiques,
  * chacune de ces heuristiques est associée à un coefficient qui représentera son influence lors du calcul du score.
+ * Les caractéristiques de la position utilisées par les heuristiques (voir PositionFeatures) sont calculées
+ * une seule fois par évaluation, puis lues par chacune d'elles.
  */
 public class CompositeHeurstic extends AbstractHeuristic {
-    private List<WeightedHeuristic> mHeuristics = new ArrayList<>();
+    // heuristiques et poids associés, parcourus sans itérateur ni objet intermédiaire
+    private AbstractHeuristic[] mHeuristics = new AbstractHeuristic[0];
+    private double[] mWeights = new double[0];
+
+    // caractéristiques demandées par les heuristiques, calculées à chaque évaluation
+    private int mFeatureFlags;
+    private final PositionFeatures mFeatures = new PositionFeatures();
 
     /**
      * Évalue les heuristiques ajoutées dans cette heuristique composite
@@ -19,19 +28,30 @@ public class CompositeHeurstic extends AbstractHeuristic {
      */
     @Override
     public double evaluate(ReversiGame game) {
-        if(mHeuristics.isEmpty())
+        mFeatures.compute(game, mFeatureFlags);
+        return evaluate(game, mFeatures);
+    }
+
+    @Override
+    public double evaluate(ReversiGame game, PositionFeatures features) {
+        if(mHeuristics.length == 0)
             throw new IllegalArgumentException("Cannot evaluate game : no heuristics added to CompositeHeuristic");
 
         double score = 0;
 
         // On calcule chaque heuristique avec le poids associé
-        for(WeightedHeuristic heur : mHeuristics) {
-            score += (heur.getHeuristic().evaluate(game) * heur.getWeight());
+        for(int i = 0; i < mHeuristics.length; i++) {
+            score += (mHeuristics[i].evaluate(game, features) * mWeights[i]);
         }
 
         return score;
     }
 
+    @Override
+    public int getFeatures() {
+        return mFeatureFlags;
+    }
+
     /**
      * Ajoute une nouvelle heuristique à la liste d'heuristiques à évaluer
      * @param heuristic Instance de l'heuristique
@@ -39,37 +59,41 @@ public class CompositeHeurstic extends AbstractHeuristic {
      * @return vrai si ajoutée, faux sinon
      */
     public boolean addHeuristic(AbstractHeuristic heuristic, double weight) {
-        return mHeuristics.add(new WeightedHeuristic(heuristic, weight));
+        if(heuristic == null)
+            throw new IllegalArgumentException("Null parameter given to CompositeHeuristic");
+
+        if(weight == 0)
+            throw new IllegalArgumentException("Weight cannot be 0");
+
+        mHeuristics = Arrays.copyOf(mHeuristics, mHeuristics.length + 1);
+        mWeights = Arrays.copyOf(mWeights, mWeights.length + 1);
+        mHeuristics[mHeuristics.length - 1] = heuristic;
+        mWeights[mWeights.length - 1] = weight;
+        mFeatureFlags |= heuristic.getFeatures();
+        return true;
+    }
+
+    /**
+     * Crée une heuristique composite à partir d'un fichier de poids (voir HeuristicWeights)
+     * @param file chemin du fichier
+     * @return heuristique composite
+     * @throws IOException si le fichier ne peut pas être lu
+     */
+    public static CompositeHeurstic load(Path file) throws IOException {
+        return HeuristicWeights.load(file).createHeuristic();
     }
 
     @Override
     public AbstractHeuristic copy() {
         CompositeHeurstic copied = new CompositeHeurstic();
-        copied.mHeuristics = new ArrayList<>(mHeuristics);
-        return copied;
-    }
-
-    private class WeightedHeuristic {
-        private AbstractHeuristic mHeuristic;
-        private double mWeight;
-
-        public WeightedHeuristic(AbstractHeuristic heuristic, double weight) {
-            if(heuristic == null)
-                throw new IllegalArgumentException("Null parameter given to WeightedHeuristic");
-
-            if(weight == 0)
-                throw new IllegalArgumentException("Weight cannot be 0");
+        copied.mHeuristics = new AbstractHeuristic[mHeuristics.length];
+        copied.mWeights = mWeights.clone();
+        copied.mFeatureFlags = mFeatureFlags;
 
-            mHeuristic = heuristic;
-            mWeight = weight;
-        }
-
-        public double getWeight() {
-            return mWeight;
-        }
-
-        public AbstractHeuristic getHeuristic() {
-            return mHeuristic;
+        // les heuristiques peuvent avoir un état propre (PatternHeuristic), chaque copie a les siennes
+        for(int i = 0; i < mHeuristics.length; i++) {
+            copied.mHeuristics[i] = mHeuristics[i].copy();
         }
+        return copied;
     }
 }
@@ -1,45 +1,27 @@
 package reversi.heuristics;
 
-import reversi.Board;
-import reversi.Piece;
-import reversi.PieceColor;
 import reversi.ReversiGame;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class CornersCapturedHeuristic extends AbstractHeuristic {
-
+    private final PositionFeatures mFeatures = new PositionFeatures();
+
+    /**
+     * Cette heuristique maximise le nombre de coins pris par le joueur MAX
+     * et minimise ceux pris par le joueur MIN.
+     * Les pièces sont lues directement sur le plateau, sans allocation.
+     * @param game instance du jeu
+     * @return score de la position à évaluer
+     */
     @Override
     public double evaluate(ReversiGame game) {
+        mFeatures.compute(game, getFeatures());
+        return evaluate(game, mFeatures);
+    }
 
-        List<Piece> cornerPieces = new ArrayList<>();
-        Board board = game.getBoard();
-
-        // coin nord-ouest
-        cornerPieces.add(board.getPiece(0, 0));
-
-        // coin nord-est
-        cornerPieces.add(board.getPiece(0, game.getColumns()));
-
-        // coin sud-est
-        cornerPieces.add(board.getPiece(game.getRows(), game.getColumns()));
-
-        // coin sud-ouest
-        cornerPieces.add(board.getPiece(game.getRows(), 0));
-
-        PieceColor maxPlayerColor = game.getCurrentPlayer().getColor();
-        int maxCorners, minCorners;
-        maxCorners = minCorners = 0;
-
-        for(Piece p : cornerPieces) {
-            if(p != null) {
-                if(p.getColor() == maxPlayerColor)
-                    maxCorners++;
-                else
-                    minCorners++;
-            }
-        }
+    @Override
+    public double evaluate(ReversiGame game, PositionFeatures features) {
+        int maxCorners = features.getMaxCorners();
+        int minCorners = features.getMinCorners();
 
         if(maxCorners + minCorners != 0)
             return 100 * (maxCorners - minCorners) / (maxCorners + minCorners);
@@ -47,6 +29,11 @@ public class CornersCapturedHeuristic extends AbstractHeuristic {
             return 0;
     }
 
+    @Override
+    public int getFeatures() {
+        return PositionFeatures.CORNERS;
+    }
+
     @Override
     public AbstractHeuristic copy() {
         return new CornersCapturedHeuristic();
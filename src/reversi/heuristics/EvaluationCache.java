@@ -0,0 +1,119 @@
+package reversi.heuristics;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache des évaluations de positions, indexées par leur clé de hachage (pièces et joueur dont c'est le tour).
+ * Les entrées sont rangées dans des tableaux de types primitifs de taille fixe, par paquets de deux :
+ * une nouvelle entrée prend la première place du paquet et l'entrée qui l'occupait passe à la seconde.
+ *
+ * Le cache peut être partagé entre plusieurs threads sans verrou : chaque entrée est vérifiée
+ * par un mot de contrôle (clé ^ valeur), une entrée en cours d'écriture par un autre thread
+ * est donc simplement vue comme absente.
+ */
+public final class EvaluationCache {
+
+    private final long[] mChecks;
+    private final long[] mValues;
+    private final int mMask;
+
+    private final LongAdder mHits = new LongAdder();
+    private final LongAdder mMisses = new LongAdder();
+
+    /**
+     * Constructeur
+     * @param sizeLog2 logarithme en base 2 du nombre d'entrées
+     */
+    public EvaluationCache(int sizeLog2) {
+        if(sizeLog2 <= 0 || sizeLog2 > 28)
+            throw new IllegalArgumentException("Cache size must be between 2^1 and 2^28 entries");
+
+        int size = 1 << sizeLog2;
+
+        mChecks = new long[size];
+        mValues = new long[size];
+        mMask = size - 2;
+    }
+
+    /**
+     * Recherche l'évaluation d'une position
+     * @param key clé de hachage de la position
+     * @return évaluation, ou NaN si la position n'est pas dans le cache
+     */
+    public double get(long key) {
+        int index = (int) key & mMask;
+
+        for(int i = index; i < index + 2; i++) {
+            long value = mValues[i];
+            if((mChecks[i] ^ value) == key) {
+                mHits.increment();
+                return Double.longBitsToDouble(value);
+            }
+        }
+
+        mMisses.increment();
+        return Double.NaN;
+    }
+
+    /**
+     * Enregistre l'évaluation d'une position
+     * @param key clé de hachage de la position
+     * @param evaluation évaluation de la position
+     */
+    public void put(long key, double evaluation) {
+        int index = (int) key & mMask;
+        long value = Double.doubleToRawLongBits(evaluation);
+
+        // l'entrée la plus récente du paquet est conservée à la seconde place
+        long previousValue = mValues[index];
+        long previousCheck = mChecks[index];
+        if((previousCheck ^ previousValue) != key) {
+            mValues[index + 1] = previousValue;
+            mChecks[index + 1] = previousCheck;
+        }
+
+        mValues[index] = value;
+        mChecks[index] = key ^ value;
+    }
+
+    /**
+     * Vide le cache et remet les compteurs à zéro.
+     * Ne doit pas être appelée pendant une recherche.
+     */
+    public void clear() {
+        Arrays.fill(mChecks, 0);
+        Arrays.fill(mValues, 0);
+        mHits.reset();
+        mMisses.reset();
+    }
+
+    /**
+     * @return nombre de positions trouvées dans le cache
+     */
+    public long getHits() {
+        return mHits.sum();
+    }
+
+    /**
+     * @return nombre de positions absentes du cache
+     */
+    public long getMisses() {
+        return mMisses.sum();
+    }
+
+    /**
+     * @return proportion des recherches ayant trouvé la position, 0 si aucune recherche
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d hits, %d misses (%.1f%%)", getHits(), getMisses(), 100 * getHitRate());
+    }
+}
@@ -0,0 +1,40 @@
+package reversi.heuristics;
+
+import reversi.ReversiGame;
+
+public class FrontierHeuristic extends AbstractHeuristic {
+    private final PositionFeatures mFeatures = new PositionFeatures();
+
+    /**
+     * Cette heuristique minimise le nombre de pièces frontières (voisines d'une case vide) du joueur MAX
+     * et maximise celles du joueur MIN : ces pièces donnent des coups à l'adversaire.
+     * @param game instance du jeu
+     * @return score de la position à évaluer
+     */
+    @Override
+    public double evaluate(ReversiGame game) {
+        mFeatures.compute(game, getFeatures());
+        return evaluate(game, mFeatures);
+    }
+
+    @Override
+    public double evaluate(ReversiGame game, PositionFeatures features) {
+        int maxFrontier = features.getMaxFrontier();
+        int minFrontier = features.getMinFrontier();
+
+        if(maxFrontier + minFrontier != 0)
+            return 100 * (minFrontier - maxFrontier) / (maxFrontier + minFrontier);
+        else
+            return 0;
+    }
+
+    @Override
+    public int getFeatures() {
+        return PositionFeatures.FRONTIER;
+    }
+
+    @Override
+    public AbstractHeuristic copy() {
+        return new FrontierHeuristic();
+    }
+}
@@ -0,0 +1,154 @@
+package reversi.heuristics;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Poids des heuristiques d'une CompositeHeurstic, identifiées par leur nom.
+ * Les poids peuvent être lus et écrits dans un fichier texte de la forme "nom=poids", un poids par ligne.
+ */
+public final class HeuristicWeights {
+
+    // noms des heuristiques pouvant être pondérées
+    public static final String SCORE = "score";
+    public static final String MOBILITY = "mobility";
+    public static final String CORNERS = "corners";
+    public static final String FRONTIER = "frontier";
+    public static final String[] NAMES = {SCORE, MOBILITY, CORNERS, FRONTIER};
+
+    private final Map<String, Double> mWeights = new LinkedHashMap<>();
+
+    /**
+     * Crée des poids nuls pour toutes les heuristiques
+     */
+    public HeuristicWeights() {
+        for(String name : NAMES) {
+            mWeights.put(name, 0.0);
+        }
+    }
+
+    /**
+     * Crée les poids utilisés par défaut par les joueurs IA
+     * @return poids par défaut
+     */
+    public static HeuristicWeights createDefault() {
+        HeuristicWeights weights = new HeuristicWeights();
+        weights.setWeight(SCORE, 10);
+        weights.setWeight(MOBILITY, 78.922);
+        weights.setWeight(CORNERS, 801.724);
+        return weights;
+    }
+
+    /**
+     * Lit un fichier de poids. Les heuristiques absentes du fichier ont un poids nul.
+     * @param file chemin du fichier
+     * @return poids lus
+     * @throws IOException si le fichier ne peut pas être lu
+     */
+    public static HeuristicWeights load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try(Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+
+        HeuristicWeights weights = new HeuristicWeights();
+        for(String name : properties.stringPropertyNames()) {
+            try {
+                weights.setWeight(name, Double.parseDouble(properties.getProperty(name).trim()));
+            } catch(NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid weight for " + name + " in " + file, e);
+            }
+        }
+
+        return weights;
+    }
+
+    /**
+     * Écrit les poids dans un fichier
+     * @param file chemin du fichier
+     * @param comment commentaire ajouté en tête du fichier, null pour aucun
+     * @throws IOException si le fichier ne peut pas être écrit
+     */
+    public void save(Path file, String comment) throws IOException {
+        try(Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if(comment != null)
+                writer.write("# " + comment + System.lineSeparator());
+
+            for(Map.Entry<String, Double> entry : mWeights.entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue() + System.lineSeparator());
+            }
+        }
+    }
+
+    /**
+     * Renvoie le poids d'une heuristique
+     * @param name nom de l'heuristique
+     * @return poids
+     */
+    public double getWeight(String name) {
+        Double weight = mWeights.get(name);
+        if(weight == null)
+            throw new IllegalArgumentException("Unknown heuristic " + name);
+
+        return weight;
+    }
+
+    /**
+     * Modifie le poids d'une heuristique
+     * @param name nom de l'heuristique
+     * @param weight nouveau poids, 0 pour ne pas utiliser l'heuristique
+     */
+    public void setWeight(String name, double weight) {
+        if(!mWeights.containsKey(name))
+            throw new IllegalArgumentException("Unknown heuristic " + name);
+
+        mWeights.put(name, weight);
+    }
+
+    /**
+     * Crée l'heuristique composite correspondant à ces poids
+     * @return heuristique composite
+     */
+    public CompositeHeurstic createHeuristic() {
+        CompositeHeurstic compositeHeurstic = new CompositeHeurstic();
+
+        for(Map.Entry<String, Double> entry : mWeights.entrySet()) {
+            if(entry.getValue() != 0)
+                compositeHeurstic.addHeuristic(createHeuristic(entry.getKey()), entry.getValue());
+        }
+
+        return compositeHeurstic;
+    }
+
+    /**
+     * Crée l'heuristique correspondant au nom donné
+     * @param name nom de l'heuristique
+     * @return nouvelle instance
+     */
+    public static AbstractHeuristic createHeuristic(String name) {
+        switch(name) {
+            case SCORE:
+                return new MaximiseScoreHeuristic();
+            case MOBILITY:
+                return new MobilityHeuristic();
+            case CORNERS:
+                return new CornersCapturedHeuristic();
+            case FRONTIER:
+                return new FrontierHeuristic();
+            default:
+                throw new IllegalArgumentException("Unknown heuristic " + name);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return mWeights.toString();
+    }
+}
@@ -3,6 +3,7 @@ package reversi.heuristics;
 import reversi.ReversiGame;
 
 public class MaximiseScoreHeuristic extends AbstractHeuristic {
+    private final PositionFeatures mFeatures = new PositionFeatures();
 
     /**
      * Cette heuristique maximise le score du joueur MAX et minimise le score du joueur MIN
@@ -11,11 +12,22 @@ public class MaximiseScoreHeuristic extends AbstractHeuristic {
      */
     @Override
     public double evaluate(ReversiGame game) {
-        int MaxScore = game.getCurrentPlayer().getScore();
-        int MinScore = game.getOpponentPlayer().getScore();
+        mFeatures.compute(game, getFeatures());
+        return evaluate(game, mFeatures);
+    }
+
+    @Override
+    public double evaluate(ReversiGame game, PositionFeatures features) {
+        int MaxScore = features.getMaxDiscs();
+        int MinScore = features.getMinDiscs();
         return 100 * (MaxScore - MinScore) / (MaxScore + MinScore);
     }
 
+    @Override
+    public int getFeatures() {
+        return PositionFeatures.DISCS;
+    }
+
     @Override
     public AbstractHeuristic copy() {
         return new MaximiseScoreHeuristic();
@@ -3,6 +3,7 @@ package reversi.heuristics;
 import reversi.ReversiGame;
 
 public class MobilityHeuristic extends AbstractHeuristic {
+    private final PositionFeatures mFeatures = new PositionFeatures();
 
     /**
      * Cette heuristique maximise le nombre de coups possibles pour le joueur MAX
@@ -12,8 +13,14 @@ public class MobilityHeuristic extends AbstractHeuristic {
      */
     @Override
     public double evaluate(ReversiGame game) {
-        int maxPlayerMoves = game.getPossibleMoves(game.getCurrentPlayer()).size();
-        int minPlayerMoves = game.getPossibleMoves(game.getOpponentPlayer()).size();
+        mFeatures.compute(game, getFeatures());
+        return evaluate(game, mFeatures);
+    }
+
+    @Override
+    public double evaluate(ReversiGame game, PositionFeatures features) {
+        int maxPlayerMoves = features.getMaxMoves();
+        int minPlayerMoves = features.getMinMoves();
 
         if(maxPlayerMoves + minPlayerMoves != 0)
             return 100 * (maxPlayerMoves - minPlayerMoves) / (maxPlayerMoves + minPlayerMoves);
@@ -21,6 +28,11 @@ public class MobilityHeuristic extends AbstractHeuristic {
             return 0;
     }
 
+    @Override
+    public int getFeatures() {
+        return PositionFeatures.MOBILITY;
+    }
+
     @Override
     public AbstractHeuristic copy() {
         return new MobilityHeuristic();
@@ -0,0 +1,62 @@
+package reversi.heuristics;
+
+import reversi.Board;
+import reversi.PieceColor;
+import reversi.ReversiGame;
+
+import java.nio.file.Path;
+
+/**
+ * Cette heuristique évalue la position par des tables de motifs (bords, coins 3x3 et 2x5, diagonales)
+ * apprises sur des parties (voir reversi.tuning.PatternTrainer).
+ * Les index des motifs sont tenus à jour par la partie à chaque coup joué ou annulé (ReversiGame.getPatternIndexes) :
+ * une feuille ne coûte que la lecture d'un poids par motif, sans génération de coups.
+ * Les tables sont chargées une seule fois par fichier et partagées par toutes les copies.
+ * Les motifs sont définis pour le plateau 8x8 : sur les autres tailles, la différence de pièces est utilisée.
+ */
+public class PatternHeuristic extends AbstractHeuristic {
+    private final PatternWeights mWeights;
+
+    /**
+     * Constructeur
+     * @param weights tables de poids
+     */
+    public PatternHeuristic(PatternWeights weights) {
+        if(weights == null)
+            throw new IllegalArgumentException("weights cannot be null");
+
+        mWeights = weights;
+    }
+
+    /**
+     * Constructeur
+     * @param file fichier de poids, chargé s'il ne l'a pas déjà été
+     */
+    public PatternHeuristic(Path file) {
+        this(PatternWeights.load(file));
+    }
+
+    @Override
+    public double evaluate(ReversiGame game) {
+        PieceColor maxPlayerColor = game.getCurrentPlayer().getColor();
+        PieceColor minPlayerColor = game.getOpponentPlayer().getColor();
+        Board board = game.getBoard();
+
+        if(!board.isBitBoard()) {
+            int maxScore = game.getScore(maxPlayerColor);
+            int minScore = game.getScore(minPlayerColor);
+            return 100 * (maxScore - minScore) / (maxScore + minScore);
+        }
+
+        // les index du point de vue des noirs suivent ceux du point de vue des blancs
+        int offset = maxPlayerColor == PieceColor.Black ? Patterns.INSTANCE_COUNT : 0;
+        int discs = game.getScore(PieceColor.White) + game.getScore(PieceColor.Black);
+        return mWeights.evaluate(discs, game.getPatternIndexes(), offset);
+    }
+
+    @Override
+    public AbstractHeuristic copy() {
+        // les tables ne sont jamais modifiées, elles sont partagées
+        return new PatternHeuristic(mWeights);
+    }
+}
@@ -0,0 +1,214 @@
+package reversi.heuristics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tables de poids de PatternHeuristic, une table par type de motif et par phase de jeu.
+ * Les poids sont stockés sur 16 bits avec un facteur d'échelle commun.
+ * Une fois chargées, les tables ne sont plus modifiées et peuvent être partagées entre threads.
+ *
+ * Format du fichier binaire (gros-boutiste) :
+ * MAGIC, VERSION, nombre de phases, nombre de types de motifs, facteur d'échelle (float),
+ * puis pour chaque phase et chaque type : taille de la table (int) et ses poids (short).
+ */
+public final class PatternWeights {
+
+    private static final int MAGIC = 0x52565054;
+    private static final int VERSION = 1;
+
+    // fichiers déjà chargés, partagés par toutes les heuristiques
+    private static final ConcurrentMap<Path, PatternWeights> LOADED = new ConcurrentHashMap<>();
+
+    // position de la table du type de chaque instance dans les tables concaténées d'une phase
+    private static final int[] INSTANCE_OFFSETS = new int[Patterns.INSTANCE_COUNT];
+
+    static {
+        int[] typeOffsets = new int[Patterns.TYPE_COUNT];
+        for(int type = 1; type < Patterns.TYPE_COUNT; type++) {
+            typeOffsets[type] = typeOffsets[type - 1] + Patterns.getTableSize(type - 1);
+        }
+
+        for(int instance = 0; instance < Patterns.INSTANCE_COUNT; instance++) {
+            INSTANCE_OFFSETS[instance] = typeOffsets[Patterns.getType(instance)];
+        }
+    }
+
+    private final short[][][] mTables;
+
+    // tables de chaque phase concaténées, pour l'évaluation
+    private final short[][] mPhaseTables;
+    private final float mScale;
+
+    /**
+     * Constructeur
+     * @param tables poids [phase][type][configuration]
+     * @param scale facteur appliqué à la somme des poids
+     */
+    public PatternWeights(short[][][] tables, float scale) {
+        if(tables.length == 0)
+            throw new IllegalArgumentException("At least one phase is required");
+
+        for(short[][] phase : tables) {
+            if(phase.length != Patterns.TYPE_COUNT)
+                throw new IllegalArgumentException("Expected " + Patterns.TYPE_COUNT + " pattern tables per phase");
+
+            for(int type = 0; type < phase.length; type++) {
+                if(phase[type].length != Patterns.getTableSize(type))
+                    throw new IllegalArgumentException("Invalid table size for pattern type " + type);
+            }
+        }
+
+        mTables = tables;
+        mScale = scale;
+
+        mPhaseTables = new short[tables.length][];
+        for(int phase = 0; phase < tables.length; phase++) {
+            int size = 0;
+            for(short[] table : tables[phase]) {
+                size += table.length;
+            }
+
+            mPhaseTables[phase] = new short[size];
+            for(int type = 0, offset = 0; type < Patterns.TYPE_COUNT; offset += tables[phase][type].length, type++) {
+                System.arraycopy(tables[phase][type], 0, mPhaseTables[phase], offset, tables[phase][type].length);
+            }
+        }
+    }
+
+    /**
+     * Charge un fichier de poids, ou renvoie l'instance déjà chargée pour ce fichier
+     * @param file chemin du fichier
+     * @return poids
+     */
+    public static PatternWeights load(Path file) {
+        return LOADED.computeIfAbsent(file.toAbsolutePath().normalize(), path -> {
+            try {
+                return read(path);
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Lit un fichier de poids
+     * @param file chemin du fichier
+     * @return poids
+     * @throws IOException si le fichier ne peut pas être lu
+     */
+    public static PatternWeights read(Path file) throws IOException {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if(in.readInt() != MAGIC)
+                throw new IOException(file + " is not a pattern weights file");
+
+            int version = in.readInt();
+            if(version != VERSION)
+                throw new IOException("Unsupported pattern weights version " + version);
+
+            int phases = in.readInt();
+            int types = in.readInt();
+            if(phases <= 0 || types != Patterns.TYPE_COUNT)
+                throw new IOException("Invalid pattern weights header in " + file);
+
+            float scale = in.readFloat();
+            short[][][] tables = new short[phases][types][];
+
+            for(int phase = 0; phase < phases; phase++) {
+                for(int type = 0; type < types; type++) {
+                    int size = in.readInt();
+                    if(size != Patterns.getTableSize(type))
+                        throw new IOException("Invalid table size for pattern type " + type + " in " + file);
+
+                    short[] table = new short[size];
+                    for(int i = 0; i < size; i++) {
+                        table[i] = in.readShort();
+                    }
+
+                    tables[phase][type] = table;
+                }
+            }
+
+            return new PatternWeights(tables, scale);
+        }
+    }
+
+    /**
+     * Écrit les poids dans un fichier
+     * @param file chemin du fichier
+     * @throws IOException si le fichier ne peut pas être écrit
+     */
+    public void write(Path file) throws IOException {
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(mTables.length);
+            out.writeInt(Patterns.TYPE_COUNT);
+            out.writeFloat(mScale);
+
+            for(short[][] phase : mTables) {
+                for(short[] table : phase) {
+                    out.writeInt(table.length);
+                    for(short weight : table) {
+                        out.writeShort(weight);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return nombre de phases de jeu
+     */
+    public int getPhaseCount() {
+        return mTables.length;
+    }
+
+    /**
+     * Renvoie la phase de jeu correspondant au nombre de pièces sur le plateau
+     * @param discs nombre de pièces
+     * @param phases nombre de phases de jeu
+     * @return phase, de 0 à phases - 1
+     */
+    public static int getPhase(int discs, int phases) {
+        return Math.min(phases - 1, Math.max(0, (discs - 4) * phases / 61));
+    }
+
+    /**
+     * Évalue une position par la somme des poids de ses motifs
+     * @param own pièces du joueur courant
+     * @param opp pièces de l'adversaire
+     * @param indexes tableau de taille Patterns.INSTANCE_COUNT utilisé pour le calcul, propre au thread appelant
+     * @return score de la position pour le joueur courant
+     */
+    public double evaluate(long own, long opp, int[] indexes) {
+        Patterns.getIndexes(own, opp, indexes);
+        return evaluate(Long.bitCount(own | opp), indexes, 0);
+    }
+
+    /**
+     * Évalue une position dont les index des motifs sont déjà calculés
+     * @param discs nombre de pièces sur le plateau
+     * @param indexes index des motifs du point de vue du joueur courant
+     * @param offset position de l'index de la première instance dans indexes
+     * @return score de la position pour le joueur courant
+     */
+    public double evaluate(int discs, int[] indexes, int offset) {
+        short[] table = mPhaseTables[getPhase(discs, mPhaseTables.length)];
+        int sum = 0;
+
+        for(int instance = 0; instance < Patterns.INSTANCE_COUNT; instance++) {
+            sum += table[INSTANCE_OFFSETS[instance] + indexes[offset + instance]];
+        }
+
+        return sum * mScale;
+    }
+}
@@ -0,0 +1,245 @@
+package reversi.heuristics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Motifs (patterns) du plateau 8x8 utilisés par PatternHeuristic.
+ * Un motif est une liste de cases ; son contenu est codé en base 3 (0 vide, 1 joueur courant, 2 adversaire),
+ * ce qui donne l'index de la configuration dans la table de poids du type de motif.
+ * Chaque type est décliné par rotations et symétries du plateau, toutes ses instances partagent la même table.
+ */
+public final class Patterns {
+
+    // types de motifs, décrits par les cases [ligne, colonne] d'une instance
+    private static final int[][][] BASE_PATTERNS = {
+        // bord et cases X
+        {{0, 0}, {0, 1}, {0, 2}, {0, 3}, {0, 4}, {0, 5}, {0, 6}, {0, 7}, {1, 1}, {1, 6}},
+        // coin 3x3
+        {{0, 0}, {0, 1}, {0, 2}, {1, 0}, {1, 1}, {1, 2}, {2, 0}, {2, 1}, {2, 2}},
+        // coin 2x5
+        {{0, 0}, {0, 1}, {0, 2}, {0, 3}, {0, 4}, {1, 0}, {1, 1}, {1, 2}, {1, 3}, {1, 4}},
+        // diagonales de 8 à 4 cases
+        {{0, 0}, {1, 1}, {2, 2}, {3, 3}, {4, 4}, {5, 5}, {6, 6}, {7, 7}},
+        {{0, 1}, {1, 2}, {2, 3}, {3, 4}, {4, 5}, {5, 6}, {6, 7}},
+        {{0, 2}, {1, 3}, {2, 4}, {3, 5}, {4, 6}, {5, 7}},
+        {{0, 3}, {1, 4}, {2, 5}, {3, 6}, {4, 7}},
+        {{0, 4}, {1, 5}, {2, 6}, {3, 7}},
+    };
+
+    public static final int TYPE_COUNT = BASE_PATTERNS.length;
+
+    // cases de chaque instance (index de bit) et type correspondant
+    private static final int[][] INSTANCES;
+    private static final int[] INSTANCE_TYPES;
+
+    public static final int INSTANCE_COUNT;
+
+    // pour chaque case, instances qui la contiennent et poids du chiffre de la case dans leur index :
+    // les entrées de la case s sont dans [SQUARE_START[s], SQUARE_START[s + 1][
+    private static final int[] SQUARE_START = new int[65];
+    private static final int[] SQUARE_INSTANCES;
+    private static final int[] SQUARE_POWERS;
+
+    static {
+        List<int[]> instances = new ArrayList<>();
+        List<Integer> types = new ArrayList<>();
+
+        for(int type = 0; type < TYPE_COUNT; type++) {
+            Set<String> seen = new HashSet<>();
+
+            for(int symmetry = 0; symmetry < 8; symmetry++) {
+                int[] squares = new int[BASE_PATTERNS[type].length];
+                for(int i = 0; i < squares.length; i++) {
+                    squares[i] = transform(BASE_PATTERNS[type][i][0], BASE_PATTERNS[type][i][1], symmetry);
+                }
+
+                // une symétrie qui redonne les mêmes cases ne crée pas de nouvelle instance
+                int[] sorted = squares.clone();
+                Arrays.sort(sorted);
+                if(seen.add(Arrays.toString(sorted))) {
+                    instances.add(squares);
+                    types.add(type);
+                }
+            }
+        }
+
+        INSTANCE_COUNT = instances.size();
+        INSTANCES = instances.toArray(new int[0][]);
+        INSTANCE_TYPES = new int[INSTANCE_COUNT];
+        for(int i = 0; i < INSTANCE_COUNT; i++) {
+            INSTANCE_TYPES[i] = types.get(i);
+        }
+
+        List<List<int[]>> squares = new ArrayList<>();
+        for(int square = 0; square < 64; square++) {
+            squares.add(new ArrayList<>());
+        }
+
+        for(int instance = 0; instance < INSTANCE_COUNT; instance++) {
+            int power = 1;
+            for(int i = INSTANCES[instance].length - 1; i >= 0; i--) {
+                squares.get(INSTANCES[instance][i]).add(new int[] {instance, power});
+                power *= 3;
+            }
+        }
+
+        List<int[]> entries = new ArrayList<>();
+        for(int square = 0; square < 64; square++) {
+            entries.addAll(squares.get(square));
+            SQUARE_START[square + 1] = entries.size();
+        }
+
+        SQUARE_INSTANCES = new int[entries.size()];
+        SQUARE_POWERS = new int[entries.size()];
+        for(int i = 0; i < entries.size(); i++) {
+            SQUARE_INSTANCES[i] = entries.get(i)[0];
+            SQUARE_POWERS[i] = entries.get(i)[1];
+        }
+    }
+
+    private Patterns() {}
+
+    /**
+     * Renvoie le nombre de configurations d'un type de motif
+     * @param type type de motif
+     * @return 3 puissance le nombre de cases du motif
+     */
+    public static int getTableSize(int type) {
+        int size = 1;
+        for(int i = 0; i < BASE_PATTERNS[type].length; i++) {
+            size *= 3;
+        }
+
+        return size;
+    }
+
+    /**
+     * Renvoie le type d'une instance de motif
+     * @param instance numéro de l'instance
+     * @return type de motif
+     */
+    public static int getType(int instance) {
+        return INSTANCE_TYPES[instance];
+    }
+
+    /**
+     * Calcule l'index de configuration d'une instance de motif
+     * @param instance numéro de l'instance
+     * @param own pièces du joueur courant
+     * @param opp pièces de l'adversaire
+     * @return index dans la table du type de l'instance
+     */
+    public static int getIndex(int instance, long own, long opp) {
+        int index = 0;
+
+        for(int square : INSTANCES[instance]) {
+            index = index * 3 + (int) ((own >>> square) & 1) + 2 * (int) ((opp >>> square) & 1);
+        }
+
+        return index;
+    }
+
+    /**
+     * Calcule l'index de configuration de toutes les instances de motifs.
+     * Seules les cases occupées sont parcourues, chacune ajoutant son chiffre aux instances qui la contiennent.
+     * @param own pièces du joueur courant
+     * @param opp pièces de l'adversaire
+     * @param indexes tableau de taille INSTANCE_COUNT recevant les index
+     */
+    public static void getIndexes(long own, long opp, int[] indexes) {
+        getIndexes(own, opp, indexes, 0);
+    }
+
+    /**
+     * Calcule les index de toutes les instances des points de vue des deux couleurs :
+     * indexes[instance] du point de vue des blancs, indexes[INSTANCE_COUNT + instance] du point de vue des noirs.
+     * Ces index sont ensuite tenus à jour coup par coup avec updateColorIndexes (voir ReversiGame.getPatternIndexes).
+     * @param white pièces blanches
+     * @param black pièces noires
+     * @param indexes tableau de taille 2 * INSTANCE_COUNT recevant les index
+     */
+    public static void getColorIndexes(long white, long black, int[] indexes) {
+        getIndexes(white, black, indexes, 0);
+        getIndexes(black, white, indexes, INSTANCE_COUNT);
+    }
+
+    /**
+     * Met à jour les index calculés par getColorIndexes après un coup joué ou annulé :
+     * seules les instances contenant la case jouée ou une pièce retournée sont modifiées.
+     * @param indexes index des deux points de vue
+     * @param square case jouée
+     * @param flips pièces retournées par le coup
+     * @param black vrai si le coup est joué par les noirs
+     * @param sign 1 pour un coup joué, -1 pour un coup annulé
+     */
+    public static void updateColorIndexes(int[] indexes, int square, long flips, boolean black, int sign) {
+        // chiffre de la pièce posée (1 pour le joueur du point de vue, 2 pour son adversaire)
+        // et variation du chiffre d'une pièce retournée, du point de vue des blancs puis des noirs
+        int placedWhite = (black ? 2 : 1) * sign;
+        int placedBlack = (black ? 1 : 2) * sign;
+        int flippedWhite = black ? sign : -sign;
+        int flippedBlack = -flippedWhite;
+
+        for(int i = SQUARE_START[square]; i < SQUARE_START[square + 1]; i++) {
+            indexes[SQUARE_INSTANCES[i]] += placedWhite * SQUARE_POWERS[i];
+            indexes[INSTANCE_COUNT + SQUARE_INSTANCES[i]] += placedBlack * SQUARE_POWERS[i];
+        }
+
+        for(; flips != 0; flips &= flips - 1) {
+            int flipped = Long.numberOfTrailingZeros(flips);
+            for(int i = SQUARE_START[flipped]; i < SQUARE_START[flipped + 1]; i++) {
+                indexes[SQUARE_INSTANCES[i]] += flippedWhite * SQUARE_POWERS[i];
+                indexes[INSTANCE_COUNT + SQUARE_INSTANCES[i]] += flippedBlack * SQUARE_POWERS[i];
+            }
+        }
+    }
+
+    /**
+     * Calcule l'index de toutes les instances à partir de la position offset du tableau
+     */
+    private static void getIndexes(long own, long opp, int[] indexes, int offset) {
+        Arrays.fill(indexes, offset, offset + INSTANCE_COUNT, 0);
+
+        for(long pieces = own; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            for(int i = SQUARE_START[square]; i < SQUARE_START[square + 1]; i++) {
+                indexes[offset + SQUARE_INSTANCES[i]] += SQUARE_POWERS[i];
+            }
+        }
+
+        for(long pieces = opp; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            for(int i = SQUARE_START[square]; i < SQUARE_START[square + 1]; i++) {
+                indexes[offset + SQUARE_INSTANCES[i]] += 2 * SQUARE_POWERS[i];
+            }
+        }
+    }
+
+    /**
+     * Applique l'une des 8 symétries du carré à la case [row, column]
+     * @return index de bit de la case transformée
+     */
+    private static int transform(int row, int column, int symmetry) {
+        int r = row, c = column;
+
+        // rotations d'un quart de tour
+        for(int i = 0; i < (symmetry & 3); i++) {
+            int tmp = r;
+            r = c;
+            c = 7 - tmp;
+        }
+
+        // symétrie par rapport à la diagonale
+        if(symmetry >= 4) {
+            int tmp = r;
+            r = c;
+            c = tmp;
+        }
+
+        return r * 8 + c;
+    }
+}
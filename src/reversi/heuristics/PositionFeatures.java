@@ -0,0 +1,165 @@
+package reversi.heuristics;
+
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.MultiBitBoard;
+import reversi.PieceColor;
+import reversi.ReversiGame;
+
+/**
+ * Caractéristiques d'une position partagées par les heuristiques : nombre de pièces, de coups possibles,
+ * de coins et de pièces frontières (voisines d'une case vide) de chaque joueur.
+ * Elles sont calculées une seule fois par position, seulement celles demandées, puis lues par chaque heuristique.
+ * Une instance est réutilisée d'une position à l'autre et ne doit pas être partagée entre threads.
+ */
+public final class PositionFeatures {
+
+    // caractéristiques pouvant être demandées, combinables par un ou binaire
+    public static final int DISCS = 1;
+    public static final int MOBILITY = 1 << 1;
+    public static final int CORNERS = 1 << 2;
+    public static final int FRONTIER = 1 << 3;
+
+    // coins du plateau 8x8
+    private static final long CORNER_SQUARES = 1L | 1L << 7 | 1L << 56 | 1L << 63;
+
+    private int mMaxDiscs, mMinDiscs;
+    private int mMaxMoves, mMinMoves;
+    private int mMaxCorners, mMinCorners;
+    private int mMaxFrontier, mMinFrontier;
+
+    // pièces frontières sur les plateaux autres que 8x8
+    private long[] mFrontier = new long[0];
+
+    /**
+     * Calcule les caractéristiques demandées pour le joueur dont c'est le tour (MAX) et son adversaire (MIN)
+     * @param game instance du jeu
+     * @param features caractéristiques à calculer (DISCS, MOBILITY, CORNERS, FRONTIER)
+     */
+    public void compute(ReversiGame game, int features) {
+        PieceColor maxPlayerColor = game.getCurrentPlayer().getColor();
+        PieceColor minPlayerColor = game.getOpponentPlayer().getColor();
+        Board board = game.getBoard();
+
+        if((features & DISCS) != 0) {
+            mMaxDiscs = game.getScore(maxPlayerColor);
+            mMinDiscs = game.getScore(minPlayerColor);
+        }
+
+        if((features & MOBILITY) != 0) {
+            mMaxMoves = game.countMoves(maxPlayerColor);
+            mMinMoves = game.countMoves(minPlayerColor);
+        }
+
+        if(board.isBitBoard()) {
+            long own = board.getPieces(maxPlayerColor);
+            long opp = board.getPieces(minPlayerColor);
+
+            if((features & CORNERS) != 0) {
+                mMaxCorners = Long.bitCount(own & CORNER_SQUARES);
+                mMinCorners = Long.bitCount(opp & CORNER_SQUARES);
+            }
+
+            if((features & FRONTIER) != 0) {
+                long frontier = BitBoard.getNeighbours(~(own | opp));
+                mMaxFrontier = Long.bitCount(own & frontier);
+                mMinFrontier = Long.bitCount(opp & frontier);
+            }
+        } else {
+            if((features & CORNERS) != 0)
+                computeCorners(game, maxPlayerColor);
+
+            if((features & FRONTIER) != 0)
+                computeFrontier(board, maxPlayerColor, minPlayerColor);
+        }
+    }
+
+    /**
+     * @return nombre de pièces du joueur MAX
+     */
+    public int getMaxDiscs() {
+        return mMaxDiscs;
+    }
+
+    /**
+     * @return nombre de pièces du joueur MIN
+     */
+    public int getMinDiscs() {
+        return mMinDiscs;
+    }
+
+    /**
+     * @return nombre de coups possibles du joueur MAX
+     */
+    public int getMaxMoves() {
+        return mMaxMoves;
+    }
+
+    /**
+     * @return nombre de coups possibles du joueur MIN
+     */
+    public int getMinMoves() {
+        return mMinMoves;
+    }
+
+    /**
+     * @return nombre de coins du joueur MAX
+     */
+    public int getMaxCorners() {
+        return mMaxCorners;
+    }
+
+    /**
+     * @return nombre de coins du joueur MIN
+     */
+    public int getMinCorners() {
+        return mMinCorners;
+    }
+
+    /**
+     * @return nombre de pièces frontières du joueur MAX
+     */
+    public int getMaxFrontier() {
+        return mMaxFrontier;
+    }
+
+    /**
+     * @return nombre de pièces frontières du joueur MIN
+     */
+    public int getMinFrontier() {
+        return mMinFrontier;
+    }
+
+    /**
+     * Compte les coins de chaque joueur sur un plateau qui n'est pas 8x8
+     */
+    private void computeCorners(ReversiGame game, PieceColor maxPlayerColor) {
+        Board board = game.getBoard();
+        int lastRow = game.getRows() - 1;
+        int lastColumn = game.getColumns() - 1;
+        mMaxCorners = mMinCorners = 0;
+
+        for(int corner = 0; corner < 4; corner++) {
+            PieceColor c = board.getPieceColor((corner >> 1) * lastRow, (corner & 1) * lastColumn);
+            if(c == maxPlayerColor)
+                mMaxCorners++;
+            else if(c != null)
+                mMinCorners++;
+        }
+    }
+
+    /**
+     * Compte les pièces frontières de chaque joueur sur un plateau qui n'est pas 8x8
+     */
+    private void computeFrontier(Board board, PieceColor maxPlayerColor, PieceColor minPlayerColor) {
+        long[] own = board.getPieceWords(maxPlayerColor);
+        long[] opp = board.getPieceWords(minPlayerColor);
+
+        if(mFrontier.length != own.length)
+            mFrontier = new long[own.length];
+
+        board.getMultiBitBoard().getFrontier(own, opp, mFrontier);
+        mMaxFrontier = MultiBitBoard.bitCountAnd(own, mFrontier);
+        mMinFrontier = MultiBitBoard.bitCountAnd(opp, mFrontier);
+    }
+}
@@ -1,18 +1,67 @@
 package reversi.players;
 
+import reversi.MoveList;
 import reversi.MovePosition;
 import reversi.PieceColor;
 import reversi.ReversiGame;
 
+import reversi.book.OpeningBook;
 import reversi.heuristics.AbstractHeuristic;
+import reversi.heuristics.CachedHeuristic;
+import reversi.heuristics.EvaluationCache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class AIPlayer implements PlayerInterface {
 
+    // nombre d'entrées de la table de transposition (2^18)
+    private static final int TRANSPOSITION_TABLE_SIZE = 18;
+
+    // résolution exacte de la fin de partie, désactivée par défaut, à partir de 14 cases vides avec enableEndgameSolver
+    public static final int DEFAULT_ENDGAME_EMPTIES = 14;
+    private static final int ENDGAME_TABLE_SIZE = 18;
+
     private int mScore = 0;
     private PieceColor mColor;
 
     private AbstractHeuristic mHeuristic;
     private int mDepth;
+    private Duration mBudget = null;
+    private MiniMax mMiniMax;
+
+    // recherche parallèle et graine du tirage entre coups de même score, null si aléatoire
+    private int mThreads = 1;
+    private Long mSeed = null;
+
+    private int mEndgameEmpties = 0;
+    private EndgameSolver.Mode mEndgameMode = EndgameSolver.Mode.DISC_DIFFERENCE;
+    private EndgameSolver mSolver;
+
+    // bibliothèque d'ouvertures consultée avant la recherche, partagée par les copies du joueur
+    private OpeningBook mBook = null;
+    private int mBookMinGames = 1;
+
+    // cache des évaluations, désactivé si la taille est nulle
+    private int mEvaluationCacheSize = 0;
+    private EvaluationCache mEvaluationCache;
+
+    // statistiques de la recherche du dernier coup
+    private SearchStats mLastStats = null;
+
+    // progression de la recherche du coup à jouer, null si personne ne la suit
+    private SearchListener mListener = null;
+
+    // statistiques de la dernière recherche du thread qui réfléchit (joueur ou réflexion)
+    private SearchStats mThinkStats = null;
+
+    // réflexion pendant le tour de l'adversaire : thread, demande d'arrêt et coups trouvés par position
+    private static final int PONDER_PREDICTION_DEPTH = 2;
+    private boolean mPondering = false;
+    private Thread mPonderThread = null;
+    private volatile boolean mPonderCancelled = false;
+    private final Map<Long, PonderedMove> mPondered = new ConcurrentHashMap<>();
 
     public AIPlayer(PieceColor c, AbstractHeuristic heuristic, int depth) {
         if(heuristic == null)
@@ -26,6 +75,130 @@ public class AIPlayer implements PlayerInterface {
         mDepth = depth;
     }
 
+    /**
+     * Crée un joueur dont la recherche est limitée en temps plutôt qu'en profondeur.
+     * La profondeur est augmentée itérativement jusqu'à épuisement du temps alloué.
+     * @param c couleur du joueur
+     * @param heuristic heuristique d'évaluation
+     * @param budget temps alloué à chaque coup
+     */
+    public AIPlayer(PieceColor c, AbstractHeuristic heuristic, Duration budget) {
+        if(heuristic == null)
+            throw new IllegalArgumentException("Heuristic cannot be null value");
+
+        if(budget == null || budget.isNegative() || budget.isZero())
+            throw new IllegalArgumentException("Budget must be a positive duration");
+
+        mColor = c;
+        mHeuristic = heuristic;
+        mBudget = budget;
+    }
+
+    /**
+     * Fixe le nombre de threads utilisés pour explorer les coups à la racine
+     * @param threads nombre de threads
+     */
+    public void setThreads(int threads) {
+        if(threads <= 0)
+            throw new IllegalArgumentException("threads must be a positive integer");
+
+        mThreads = threads;
+        close();
+        mMiniMax = null;
+    }
+
+    /**
+     * Fixe la graine utilisée pour départager les coups de même score,
+     * rend les parties à profondeur fixe reproductibles
+     * @param seed graine du générateur
+     */
+    public void setSeed(long seed) {
+        mSeed = seed;
+        close();
+        mMiniMax = null;
+    }
+
+    /**
+     * Active la résolution exacte de la fin de partie à partir de DEFAULT_ENDGAME_EMPTIES cases vides,
+     * en cherchant la différence de pièces finale
+     */
+    public void enableEndgameSolver() {
+        setEndgameSolver(DEFAULT_ENDGAME_EMPTIES, EndgameSolver.Mode.DISC_DIFFERENCE);
+    }
+
+    /**
+     * Configure la résolution exacte de la fin de partie (désactivée par défaut)
+     * @param empties nombre de cases vides à partir duquel la fin de partie est résolue, 0 pour la désactiver
+     * @param mode type de score recherché
+     */
+    public void setEndgameSolver(int empties, EndgameSolver.Mode mode) {
+        if(empties < 0)
+            throw new IllegalArgumentException("empties cannot be negative");
+
+        if(mode == null)
+            throw new IllegalArgumentException("mode cannot be null");
+
+        mEndgameEmpties = empties;
+        mEndgameMode = mode;
+        mSolver = null;
+    }
+
+    /**
+     * Fixe la bibliothèque d'ouvertures consultée avant chaque recherche
+     * @param book bibliothèque, null pour ne plus en utiliser
+     * @param minGames nombre minimal de parties pour qu'un coup de la bibliothèque soit joué
+     */
+    public void setOpeningBook(OpeningBook book, int minGames) {
+        if(minGames <= 0)
+            throw new IllegalArgumentException("minGames must be a positive integer");
+
+        mBook = book;
+        mBookMinGames = minGames;
+    }
+
+    /**
+     * Active le cache des évaluations de l'heuristique, conservé d'un coup à l'autre
+     * et partagé par les threads de la recherche
+     * @param sizeLog2 logarithme en base 2 du nombre d'entrées, 0 pour désactiver le cache
+     */
+    public void setEvaluationCache(int sizeLog2) {
+        if(sizeLog2 < 0)
+            throw new IllegalArgumentException("Cache size cannot be negative");
+
+        mEvaluationCacheSize = sizeLog2;
+        mEvaluationCache = null;
+        close();
+        mMiniMax = null;
+    }
+
+    /**
+     * Arrête la réflexion en cours et les threads de la recherche parallèle.
+     * Le joueur reste utilisable, les threads sont recréés à la recherche suivante.
+     */
+    public synchronized void close() {
+        stopPondering();
+
+        if(mMiniMax != null)
+            mMiniMax.close();
+    }
+
+    /**
+     * Renvoie le cache des évaluations, pour consulter ses compteurs
+     * @return cache, null s'il est désactivé ou si le joueur n'a pas encore joué
+     */
+    public EvaluationCache getEvaluationCache() {
+        return mEvaluationCache;
+    }
+
+    /**
+     * Renvoie les statistiques de la recherche du dernier coup joué
+     * (MiniMax ou résolution exacte de la fin de partie)
+     * @return statistiques, null si le joueur n'a pas encore joué ou si le coup vient de la bibliothèque d'ouvertures
+     */
+    public SearchStats getLastStats() {
+        return mLastStats;
+    }
+
     @Override
     public void setScore(int score) {
         mScore = score;
@@ -41,12 +214,223 @@ public class AIPlayer implements PlayerInterface {
         return mColor;
     }
 
+    /**
+     * Fixe l'objet informé de la progression de la recherche du coup à jouer (pas de la réflexion
+     * pendant le tour de l'adversaire). Il est appelé par le thread qui exécute playTurn.
+     * @param listener objet informé de la progression, null pour ne plus suivre la progression
+     */
+    public void setSearchListener(SearchListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Cherche le coup à jouer. Si le thread appelant est interrompu, la recherche s'arrête
+     * au plus tôt et null est renvoyé : le coup ne doit alors pas être joué.
+     */
     @Override
     public MovePosition playTurn(ReversiGame game) {
+        // le résultat de la réflexion pendant le tour de l'adversaire est utilisé s'il porte sur cette position
+        PonderedMove pondered = stopPondering(game.getHash());
+        if(pondered != null && game.generateMoves().indexOf(pondered.mMove.getRow(), pondered.mMove.getColumn()) >= 0) {
+            mLastStats = pondered.mStats;
+            return pondered.mMove;
+        }
+
+        if(mBook != null) {
+            MovePosition move = mBook.getMove(game, mBookMinGames);
+            if(move != null) {
+                mLastStats = null;
+                return move;
+            }
+        }
+
+        MovePosition move = think(game, mListener);
+        mLastStats = mThinkStats;
+        return move;
+    }
+
+    /**
+     * Active la réflexion pendant le tour de l'adversaire (voir ponder)
+     * @param pondering vrai pour réfléchir pendant le tour de l'adversaire
+     */
+    public void setPondering(boolean pondering) {
+        mPondering = pondering;
+        if(!pondering)
+            stopPondering();
+    }
+
+    /**
+     * Commence à réfléchir sur un autre thread pendant le tour de l'adversaire : chacune de ses réponses possibles
+     * est explorée, la plus probable d'abord. Lorsque playTurn est appelée, la réflexion est arrêtée ;
+     * si la position atteinte a déjà été explorée, son coup est joué immédiatement,
+     * sinon la recherche profite de la table de transposition remplie pendant la réflexion.
+     * Sans effet si la réflexion n'est pas activée ou si la partie est terminée.
+     * @param game partie, dont c'est le tour de l'adversaire
+     */
+    public synchronized void ponder(ReversiGame game) {
+        stopPondering();
+
+        if(!mPondering || game.isGameOver() || game.getCurrentPlayer().getColor() == mColor)
+            return;
+
+        ensureMiniMax();
+        ReversiGame position = game.copy();
+        mPonderCancelled = false;
+        mPonderThread = new Thread(() -> ponderReplies(position), "AIPlayer pondering");
+        mPonderThread.setDaemon(true);
+        mPonderThread.start();
+    }
+
+    /**
+     * Arrête la réflexion en cours et oublie ses résultats
+     */
+    public synchronized void stopPondering() {
+        stopPondering(0);
+        mPondered.clear();
+    }
+
+    /**
+     * Arrête la réflexion en cours et attend la fin de son thread, même si le thread appelant est interrompu :
+     * la recherche MiniMax ne doit jamais être utilisée par deux threads à la fois
+     * @param hash clé de la position recherchée
+     * @return résultat de la réflexion pour cette position, null si elle n'a pas été explorée jusqu'au bout
+     */
+    private synchronized PonderedMove stopPondering(long hash) {
+        if(mPonderThread == null)
+            return null;
+
+        mPonderCancelled = true;
+        boolean interrupted = false;
+
+        // la demande d'arrêt est renouvelée au cas où une recherche commencerait juste après
+        while(mPonderThread.isAlive()) {
+            mMiniMax.stop();
+            try {
+                mPonderThread.join(10);
+            } catch(InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        // l'interruption est transmise à la recherche qui suit
+        if(interrupted)
+            Thread.currentThread().interrupt();
+
+        mPonderThread = null;
+        PonderedMove pondered = mPondered.get(hash);
+        mPondered.clear();
+        return pondered;
+    }
+
+    /**
+     * Explore les réponses de l'adversaire (thread de réflexion)
+     * @param game position dont c'est le tour de l'adversaire
+     */
+    private void ponderReplies(ReversiGame game) {
+        MoveList replies = game.generateMoves();
+        if(replies.isEmpty()) {
+            ReversiGame child = game.copy();
+            child.makePass();
+            ponderPosition(child);
+            return;
+        }
+
+        // réponse prévue : celle d'une recherche peu profonde du point de vue de l'adversaire
+        MovePosition predicted = mMiniMax.explore(game, PONDER_PREDICTION_DEPTH);
+        int predictedIndex = predicted == null ? -1 : replies.indexOf(predicted.getRow(), predicted.getColumn());
+        if(predictedIndex > 0)
+            replies.swap(0, predictedIndex);
 
-        MiniMax minimax = new MiniMax(mHeuristic);
-        minimax.enableAlphaBeta();
-        return minimax.explore(game, mDepth);
+        for(int i = 0; i < replies.size() && !mPonderCancelled; i++) {
+            ReversiGame child = game.copy();
+            child.makeMove(replies, i);
+            ponderPosition(child);
+        }
+    }
+
+    /**
+     * Explore une position du joueur et enregistre le coup trouvé (thread de réflexion)
+     */
+    private void ponderPosition(ReversiGame game) {
+        // la fin de partie est résolue exactement au moment de jouer, la bibliothèque répond immédiatement
+        if(game.isGameOver() || getEmpties(game) <= mEndgameEmpties
+            || (mBook != null && mBook.getMove(game, mBookMinGames) != null))
+            return;
+
+        MovePosition move = think(game, null);
+        if(move != null && !mPonderCancelled)
+            mPondered.put(game.getHash(), new PonderedMove(move, mThinkStats));
+    }
+
+    /**
+     * Cherche le coup à jouer (résolution exacte de la fin de partie ou MiniMax)
+     * Les statistiques de la recherche sont placées dans mThinkStats.
+     * @param listener objet informé de la progression de la recherche, null si personne ne la suit
+     */
+    private MovePosition think(ReversiGame game, SearchListener listener) {
+        ensureMiniMax();
+        mMiniMax.setSearchListener(listener);
+
+        if(getEmpties(game) <= mEndgameEmpties) {
+            if(mSolver == null)
+                mSolver = new EndgameSolver(mEndgameMode, ENDGAME_TABLE_SIZE);
+
+            mSolver.setSearchListener(listener);
+
+            if(mBudget == null) {
+                MovePosition move = mSolver.solve(game);
+                mThinkStats = mSolver.getLastStats();
+                return move;
+            }
+
+            // la moitié du temps est accordée au solveur, l'autre moitié sert si la résolution n'aboutit pas
+            Duration half = mBudget.dividedBy(2);
+            MovePosition move = mSolver.solve(game, half);
+            if(move != null) {
+                mThinkStats = mSolver.getLastStats();
+                return move;
+            }
+
+            move = mMiniMax.explore(game, mBudget.minus(half));
+            mThinkStats = mMiniMax.getLastStats();
+            return move;
+        }
+
+        MovePosition move = mBudget != null ? mMiniMax.explore(game, mBudget) : mMiniMax.explore(game, mDepth);
+        mThinkStats = mMiniMax.getLastStats();
+        return move;
+    }
+
+    /**
+     * Crée la recherche MiniMax au premier tour : les copies du joueur utilisées pendant la recherche n'en ont pas besoin
+     */
+    private void ensureMiniMax() {
+        if(mMiniMax != null)
+            return;
+
+        AbstractHeuristic heuristic = mHeuristic;
+        if(mEvaluationCacheSize > 0) {
+            mEvaluationCache = new EvaluationCache(mEvaluationCacheSize);
+            heuristic = new CachedHeuristic(mHeuristic, mEvaluationCache);
+        }
+
+        mMiniMax = new MiniMax(heuristic);
+        mMiniMax.enableAlphaBeta();
+        mMiniMax.enableTranspositionTable(TRANSPOSITION_TABLE_SIZE);
+        mMiniMax.enableMoveOrdering(new HistoryMoveOrderer());
+
+        if(mThreads > 1)
+            mMiniMax.enableParallelSearch(mThreads);
+
+        if(mSeed != null)
+            mMiniMax.setSeed(mSeed);
+    }
+
+    /**
+     * Nombre de cases vides du plateau
+     */
+    private static int getEmpties(ReversiGame game) {
+        return game.getRows() * game.getColumns() - game.getScore(PieceColor.White) - game.getScore(PieceColor.Black);
     }
 
     /**
@@ -55,8 +439,30 @@ public class AIPlayer implements PlayerInterface {
      */
     @Override
     public PlayerInterface copy() {
-        AIPlayer copy = new AIPlayer(mColor, mHeuristic.copy(), mDepth);
+        AIPlayer copy = mBudget != null
+            ? new AIPlayer(mColor, mHeuristic.copy(), mBudget)
+            : new AIPlayer(mColor, mHeuristic.copy(), mDepth);
         copy.setScore(mScore);
+        copy.mThreads = mThreads;
+        copy.mSeed = mSeed;
+        copy.mEndgameEmpties = mEndgameEmpties;
+        copy.mEndgameMode = mEndgameMode;
+        copy.mEvaluationCacheSize = mEvaluationCacheSize;
+        copy.mBook = mBook;
+        copy.mBookMinGames = mBookMinGames;
         return copy;
     }
+
+    /**
+     * Coup trouvé pendant la réflexion pour une réponse de l'adversaire
+     */
+    private static final class PonderedMove {
+        private final MovePosition mMove;
+        private final SearchStats mStats;
+
+        PonderedMove(MovePosition move, SearchStats stats) {
+            mMove = move;
+            mStats = stats;
+        }
+    }
 }
@@ -0,0 +1,42 @@
+package reversi.players;
+
+import reversi.MoveList;
+import reversi.ReversiGame;
+
+/**
+ * Ordonne les coups avant leur exploration par MiniMax.
+ * Explorer les meilleurs coups en premier permet à l'élagage alpha-beta de couper davantage de branches.
+ */
+public abstract class AbstractMoveOrderer {
+
+    /**
+     * Trie les coups du joueur courant, du plus prometteur au moins prometteur
+     * @param game partie virtuelle
+     * @param moves coups à trier
+     * @param ply distance à la racine de la recherche
+     * @param hashMove case du meilleur coup de la table de transposition, -1 si inconnu
+     */
+    public abstract void order(ReversiGame game, MoveList moves, int ply, int hashMove);
+
+    /**
+     * Signale qu'un coup a provoqué une coupure beta
+     * @param game partie virtuelle, avant le coup
+     * @param square case du coup
+     * @param ply distance à la racine de la recherche
+     * @param depth profondeur restante
+     */
+    public void cutoff(ReversiGame game, int square, int ply, int depth) {
+    }
+
+    /**
+     * Signale le début d'une nouvelle recherche
+     */
+    public void newSearch() {
+    }
+
+    /**
+     * Copie de l'instance, sans les informations apprises pendant les recherches
+     * @return nouvelle instance
+     */
+    public abstract AbstractMoveOrderer copy();
+}
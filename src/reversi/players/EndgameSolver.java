@@ -0,0 +1,753 @@
+package reversi.players;
+
+import reversi.BitBoard;
+import reversi.Board;
+import reversi.MoveList;
+import reversi.MovePosition;
+import reversi.PieceColor;
+import reversi.ReversiGame;
+
+import java.time.Duration;
+
+/**
+ * Résolution exacte des fins de partie
+ * Explore l'arbre jusqu'à la fin de la partie, sans heuristique, lorsqu'il reste peu de cases vides.
+ * Le score d'une position est la différence de pièces finale du joueur courant (DISC_DIFFERENCE),
+ * ou seulement son signe (WIN_LOSS_DRAW), plus rapide à obtenir.
+ *
+ * Sur les plateaux 8x8, la recherche travaille directement sur les masques de pièces :
+ * - les coups des régions (quarts du plateau) contenant un nombre impair de cases vides sont explorés en premier ;
+ * - loin de la fin, les coups laissant le moins de coups à l'adversaire sont explorés en premier ;
+ * - les LAST_SQUARES dernières cases sont essayées directement, sans génération des coups ni table.
+ * Les autres tailles de plateau sont explorées à travers ReversiGame (makeMove / undoMove).
+ */
+public final class EndgameSolver {
+
+    public enum Mode {
+        DISC_DIFFERENCE,
+        WIN_LOSS_DRAW
+    }
+
+    // nombre de cases vides en dessous duquel la recherche spécialisée est utilisée
+    private static final int LAST_SQUARES = 4;
+
+    // nombre de cases vides au-dessus duquel la mobilité adverse est utilisée pour l'ordonnancement
+    private static final int FASTEST_FIRST_EMPTIES = 7;
+
+    // borne supérieure des scores
+    private static final int INFINITY = 1000;
+
+    // quarts du plateau 8x8, utilisés pour la parité
+    private static final long[] QUADRANTS = {
+        0x000000000F0F0F0FL, 0x00000000F0F0F0F0L,
+        0x0F0F0F0F00000000L, 0xF0F0F0F000000000L
+    };
+
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    private final Mode mMode;
+    private final EndgameTable mTable;
+
+    // coups et priorités réutilisés d'une recherche à l'autre, un tableau par nombre de cases vides
+    private int[][] mSquares = new int[0][];
+    private long[][] mFlips = new long[0][];
+    private int[][] mPriorities = new int[0][];
+    private MoveList[] mMoveLists = new MoveList[0];
+
+    // plateaux autres que 8x8 : nombre de cases vides de chaque quart, un tableau par nombre de cases vides,
+    // et masques des quarts du dernier plateau résolu
+    private int[][] mRegions = new int[0][];
+    private long[][] mRegionMasks = null;
+    private int mRegionRows = 0;
+    private int mRegionColumns = 0;
+
+    private int mLastScore = 0;
+    private long mDeadline = Long.MAX_VALUE;
+
+    // thread de la résolution en cours, dont l'interruption arrête la résolution
+    private Thread mSearchThread = null;
+
+    // progression de la résolution, null si personne ne la suit
+    private SearchListener mListener = null;
+
+    // compteurs de la résolution en cours
+    private long mNodes = 0;
+    private long mEvaluations = 0;
+    private long mCutoffs = 0;
+    private long mTableHits = 0;
+
+    // statistiques de la dernière résolution
+    private SearchStats mLastStats = null;
+
+    /**
+     * Constructeur
+     * @param mode type de score recherché
+     * @param tableSizeLog2 logarithme en base 2 du nombre d'entrées de la table de hachage
+     */
+    public EndgameSolver(Mode mode, int tableSizeLog2) {
+        if(mode == null)
+            throw new IllegalArgumentException("mode cannot be null");
+
+        mMode = mode;
+        mTable = new EndgameTable(tableSizeLog2);
+    }
+
+    /**
+     * Renvoie le type de score recherché
+     * @return mode de résolution
+     */
+    public Mode getMode() {
+        return mMode;
+    }
+
+    /**
+     * Renvoie le score exact du coup choisi lors de la dernière résolution
+     * @return différence de pièces finale, ou -1 / 0 / 1 en mode WIN_LOSS_DRAW
+     */
+    public int getLastScore() {
+        return mLastScore;
+    }
+
+    /**
+     * Renvoie les statistiques de la dernière résolution, la profondeur étant le nombre de cases vides
+     * @return statistiques, null si aucune résolution n'a été terminée
+     */
+    public SearchStats getLastStats() {
+        return mLastStats;
+    }
+
+    /**
+     * Fixe l'objet informé de la progression des résolutions suivantes
+     * @param listener objet appelé par le thread de la résolution, null pour ne plus suivre la progression
+     */
+    public void setSearchListener(SearchListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Résout la position et renvoie le meilleur coup du joueur courant.
+     * La résolution s'arrête si son thread est interrompu (Thread.interrupt).
+     * @param game partie à résoudre
+     * @return meilleur coup, null si le joueur courant doit passer son tour ou si la résolution a été interrompue
+     */
+    public MovePosition solve(ReversiGame game) {
+        if(game == null)
+            throw new IllegalArgumentException("game cannot be null");
+
+        mDeadline = Long.MAX_VALUE;
+
+        try {
+            return solveRoot(game);
+        } catch(SearchTimeoutException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Résout la position dans le temps imparti
+     * @param game partie à résoudre
+     * @param budget temps alloué à la résolution
+     * @return meilleur coup, null si le joueur courant doit passer son tour, si le temps est écoulé
+     * ou si la résolution a été interrompue
+     */
+    public MovePosition solve(ReversiGame game, Duration budget) {
+        if(game == null)
+            throw new IllegalArgumentException("game cannot be null");
+
+        if(budget == null || budget.isNegative() || budget.isZero())
+            throw new IllegalArgumentException("budget must be a positive duration");
+
+        mDeadline = System.nanoTime() + budget.toNanos();
+
+        try {
+            return solveRoot(game);
+        } catch(SearchTimeoutException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Explore tous les coups du joueur courant jusqu'à la fin de la partie
+     */
+    private MovePosition solveRoot(ReversiGame game) {
+        long startTime = System.nanoTime();
+        mSearchThread = Thread.currentThread();
+        mNodes = 0;
+        mEvaluations = 0;
+        mCutoffs = 0;
+        mTableHits = 0;
+
+        int empties = game.getRows() * game.getColumns()
+            - game.getScore(PieceColor.White) - game.getScore(PieceColor.Black);
+        ensureBuffers(empties, game.getRows() * game.getColumns());
+        if(!game.getBoard().isBitBoard())
+            ensureRegionMasks(game.getRows(), game.getColumns());
+
+        int bound = mMode == Mode.WIN_LOSS_DRAW ? 1 : INFINITY;
+        int bestScore = -INFINITY;
+        int bestSquare = -1;
+
+        if(game.getBoard().isBitBoard()) {
+            PieceColor c = game.getCurrentPlayer().getColor();
+            long own = game.getBoard().getPieces(c);
+            long opp = game.getBoard().getPieces(c == PieceColor.White ? PieceColor.Black : PieceColor.White);
+
+            int count = orderBitBoardMoves(own, opp, empties, -1);
+
+            for(int i = 0; i < count; i++) {
+                int square = mSquares[empties][i];
+                long flips = mFlips[empties][i];
+                long newOwn = own | flips | (1L << square);
+                long newOpp = opp & ~flips;
+
+                int score = -solveBitBoard(newOpp, newOwn, -bound, -Math.max(bestScore, -bound), false);
+                if(score > bestScore) {
+                    bestScore = score;
+                    bestSquare = square;
+                    reportProgress(game, empties, bestSquare, bestScore);
+                }
+
+                if(bestScore >= bound)
+                    break;
+            }
+        } else {
+            MoveList moves = mMoveLists[empties];
+            game = game.copy();
+            game.generateMoves(moves);
+            orderGameMoves(game, moves, empties, -1);
+
+            for(int i = 0; i < moves.size(); i++) {
+                game.makeMove(moves, i);
+                int score = -solveGame(game, -bound, -Math.max(bestScore, -bound));
+                game.undoMove();
+
+                if(score > bestScore) {
+                    bestScore = score;
+                    bestSquare = moves.getSquare(i);
+                    reportProgress(game, empties, bestSquare, bestScore);
+                }
+
+                if(bestScore >= bound)
+                    break;
+            }
+        }
+
+        mLastStats = new SearchStats(mNodes, mEvaluations, mCutoffs, mTableHits, empties, System.nanoTime() - startTime);
+
+        if(bestSquare < 0)
+            return null;
+
+        mLastScore = bestScore;
+
+        return new MovePosition(bestSquare / game.getColumns(), bestSquare % game.getColumns());
+    }
+
+    /**
+     * Résolution Negamax avec élagage alpha-beta et fenêtre nulle sur un plateau 8x8
+     * @param own pièces du joueur courant
+     * @param opp pièces de l'adversaire
+     * @param alpha score minimal déjà assuré au joueur courant
+     * @param beta score maximal que l'adversaire laissera au joueur courant
+     * @param passed vrai si l'adversaire vient de passer son tour
+     * @return score de la position pour le joueur courant
+     */
+    private int solveBitBoard(long own, long opp, int alpha, int beta, boolean passed) {
+        long empty = ~(own | opp);
+        int empties = Long.bitCount(empty);
+
+        if(empties <= LAST_SQUARES)
+            return solveLastSquares(own, opp, empty, alpha, beta, passed);
+
+        mNodes++;
+        checkDeadline();
+
+        long moves = BitBoard.getMoves(own, opp);
+
+        // pas de coups, on passe au joueur suivant si la partie n'est pas terminée
+        if(moves == 0) {
+            if(passed)
+                return finalScore(Long.bitCount(own) - Long.bitCount(opp));
+
+            return -solveBitBoard(opp, own, -beta, -alpha, true);
+        }
+
+        // la position a peut-être déjà été résolue, au moins en partie
+        long key = EndgameTable.key(own, opp);
+        int hashMove = -1;
+        int slot = mTable.probe(key);
+        if(slot >= 0) {
+            mTableHits++;
+            int lower = mTable.getLower(slot);
+            int upper = mTable.getUpper(slot);
+
+            if(lower >= beta)
+                return lower;
+            if(upper <= alpha)
+                return upper;
+            if(lower == upper)
+                return lower;
+
+            alpha = Math.max(alpha, lower);
+            beta = Math.min(beta, upper);
+            hashMove = mTable.getMove(slot);
+        }
+
+        int alphaOrig = alpha;
+
+        int count = orderBitBoardMoves(own, opp, empties, hashMove);
+        int[] squares = mSquares[empties];
+        long[] flipsList = mFlips[empties];
+
+        int bestScore = -INFINITY;
+        int bestMove = -1;
+
+        for(int i = 0; i < count; i++) {
+            int square = squares[i];
+            long flips = flipsList[i];
+            long newOwn = own | flips | (1L << square);
+            long newOpp = opp & ~flips;
+
+            int score;
+            if(i == 0) {
+                score = -solveBitBoard(newOpp, newOwn, -beta, -alpha, false);
+            } else {
+                // les scores sont entiers : la fenêtre nulle est [alpha, alpha + 1]
+                score = -solveBitBoard(newOpp, newOwn, -alpha - 1, -alpha, false);
+                if(score > alpha && score < beta)
+                    score = -solveBitBoard(newOpp, newOwn, -beta, -score, false);
+            }
+
+            if(score > bestScore) {
+                bestScore = score;
+                bestMove = square;
+
+                if(bestScore > alpha)
+                    alpha = bestScore;
+
+                if(alpha >= beta) {
+                    mCutoffs++;
+                    break;
+                }
+            }
+        }
+
+        mTable.store(key, bestScore, alphaOrig, beta, bestMove);
+
+        return bestScore;
+    }
+
+    /**
+     * Résolution des dernières cases vides : chaque case vide est essayée directement,
+     * sans génération des coups, ordonnancement ni table de hachage.
+     */
+    private int solveLastSquares(long own, long opp, long empty, int alpha, int beta, boolean passed) {
+        mNodes++;
+        checkDeadline();
+
+        if(empty == 0)
+            return finalScore(Long.bitCount(own) - Long.bitCount(opp));
+
+        // une seule case vide : le score se déduit du nombre de pièces retournées
+        if((empty & (empty - 1)) == 0)
+            return solveLastSquare(own, opp, Long.numberOfTrailingZeros(empty));
+
+        int bestScore = -INFINITY;
+
+        for(long e = empty; e != 0; e &= e - 1) {
+            int square = Long.numberOfTrailingZeros(e);
+            long flips = BitBoard.getFlips(square, own, opp);
+
+            if(flips == 0)
+                continue;
+
+            long bit = 1L << square;
+            int score = -solveLastSquares(opp & ~flips, own | flips | bit, empty & ~bit, -beta, -alpha, false);
+
+            if(score > bestScore) {
+                bestScore = score;
+
+                if(bestScore > alpha)
+                    alpha = bestScore;
+
+                if(alpha >= beta) {
+                    mCutoffs++;
+                    break;
+                }
+            }
+        }
+
+        // aucun coup possible
+        if(bestScore == -INFINITY) {
+            if(passed)
+                return finalScore(Long.bitCount(own) - Long.bitCount(opp));
+
+            return -solveLastSquares(opp, own, empty, -beta, -alpha, true);
+        }
+
+        return bestScore;
+    }
+
+    /**
+     * Score final lorsqu'il ne reste qu'une case vide
+     */
+    private int solveLastSquare(long own, long opp, int square) {
+        int diff = Long.bitCount(own) - Long.bitCount(opp);
+
+        long flips = BitBoard.getFlips(square, own, opp);
+        if(flips != 0)
+            return finalScore(diff + 2 * Long.bitCount(flips) + 1);
+
+        // le joueur courant passe, l'adversaire joue peut-être la dernière case
+        flips = BitBoard.getFlips(square, opp, own);
+        if(flips != 0)
+            return finalScore(diff - 2 * Long.bitCount(flips) - 1);
+
+        return finalScore(diff);
+    }
+
+    /**
+     * Calcule et trie les coups du joueur courant sur un plateau 8x8 dans les tableaux du niveau donné
+     * @return nombre de coups
+     */
+    private int orderBitBoardMoves(long own, long opp, int empties, int hashMove) {
+        int[] squares = mSquares[empties];
+        long[] flipsList = mFlips[empties];
+        int[] priorities = mPriorities[empties];
+
+        long empty = ~(own | opp);
+
+        // régions contenant un nombre impair de cases vides
+        long oddRegions = 0;
+        for(long quadrant : QUADRANTS) {
+            if((Long.bitCount(empty & quadrant) & 1) != 0)
+                oddRegions |= quadrant;
+        }
+
+        int count = 0;
+        for(long moves = BitBoard.getMoves(own, opp); moves != 0; moves &= moves - 1) {
+            int square = Long.numberOfTrailingZeros(moves);
+            long flips = BitBoard.getFlips(square, own, opp);
+            long bit = 1L << square;
+
+            int priority;
+            if(square == hashMove) {
+                priority = Integer.MAX_VALUE;
+            } else {
+                priority = (oddRegions & bit) != 0 ? 1 << 8 : 0;
+
+                // moins l'adversaire a de coups, plus la recherche a de chances d'être courte
+                if(empties > FASTEST_FIRST_EMPTIES)
+                    priority -= Long.bitCount(BitBoard.getMoves(opp & ~flips, own | flips | bit));
+            }
+
+            squares[count] = square;
+            flipsList[count] = flips;
+            priorities[count] = priority;
+            count++;
+        }
+
+        sort(squares, flipsList, priorities, count);
+
+        return count;
+    }
+
+    /**
+     * Résolution Negamax à travers ReversiGame, pour les plateaux qui ne sont pas en 8x8
+     * @param game partie virtuelle
+     * @param alpha score minimal déjà assuré au joueur courant
+     * @param beta score maximal que l'adversaire laissera au joueur courant
+     * @return score de la position pour le joueur courant
+     */
+    private int solveGame(ReversiGame game, int alpha, int beta) {
+        mNodes++;
+        checkDeadline();
+
+        PieceColor c = game.getCurrentPlayer().getColor();
+        int empties = game.getRows() * game.getColumns()
+            - game.getScore(PieceColor.White) - game.getScore(PieceColor.Black);
+
+        MoveList moves = mMoveLists[empties];
+        game.generateMoves(moves);
+
+        // pas de coups, on passe au joueur suivant si la partie n'est pas terminée
+        if(moves.isEmpty()) {
+            if(!game.hasLastPlayerMoved())
+                return finalScore(game.getScore(c) - game.getScore(game.getOpponentPlayer().getColor()));
+
+            game.makePass();
+            int score = -solveGame(game, -beta, -alpha);
+            game.undoMove();
+            return score;
+        }
+
+        long key = game.getHash();
+        int hashMove = -1;
+        int slot = mTable.probe(key);
+        if(slot >= 0) {
+            mTableHits++;
+            int lower = mTable.getLower(slot);
+            int upper = mTable.getUpper(slot);
+
+            if(lower >= beta)
+                return lower;
+            if(upper <= alpha)
+                return upper;
+            if(lower == upper)
+                return lower;
+
+            alpha = Math.max(alpha, lower);
+            beta = Math.min(beta, upper);
+            hashMove = mTable.getMove(slot);
+        }
+
+        int alphaOrig = alpha;
+
+        orderGameMoves(game, moves, empties, hashMove);
+
+        int bestScore = -INFINITY;
+        int bestMove = -1;
+
+        for(int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves, i);
+
+            int score;
+            if(i == 0) {
+                score = -solveGame(game, -beta, -alpha);
+            } else {
+                score = -solveGame(game, -alpha - 1, -alpha);
+                if(score > alpha && score < beta)
+                    score = -solveGame(game, -beta, -score);
+            }
+
+            game.undoMove();
+
+            if(score > bestScore) {
+                bestScore = score;
+                bestMove = moves.getSquare(i);
+
+                if(bestScore > alpha)
+                    alpha = bestScore;
+
+                if(alpha >= beta) {
+                    mCutoffs++;
+                    break;
+                }
+            }
+        }
+
+        mTable.store(key, bestScore, alphaOrig, beta, bestMove);
+
+        return bestScore;
+    }
+
+    /**
+     * Trie les coups d'une partie qui n'est pas en 8x8 : meilleur coup connu, puis parité des régions
+     */
+    private void orderGameMoves(ReversiGame game, MoveList moves, int empties, int hashMove) {
+        Board board = game.getBoard();
+        int rows = board.getRows();
+        int columns = board.getColumns();
+
+        // nombre de cases vides de chaque quart du plateau
+        long[] white = board.getPieceWords(PieceColor.White);
+        long[] black = board.getPieceWords(PieceColor.Black);
+        int[] regions = mRegions[empties];
+        for(int region = 0; region < 4; region++) {
+            long[] mask = mRegionMasks[region];
+            int count = 0;
+            for(int i = 0; i < mask.length; i++) {
+                count += Long.bitCount(mask[i] & ~(white[i] | black[i]));
+            }
+            regions[region] = count;
+        }
+
+        int[] priorities = mPriorities[empties];
+        for(int i = 0; i < moves.size(); i++) {
+            int square = moves.getSquare(i);
+
+            if(square == hashMove)
+                priorities[i] = Integer.MAX_VALUE;
+            else
+                priorities[i] = regions[region(square / columns, square % columns, rows, columns)] & 1;
+        }
+
+        // tri par insertion, les coups de même priorité gardent leur ordre
+        for(int i = 1; i < moves.size(); i++) {
+            int priority = priorities[i];
+            int j = i;
+
+            while(j > 0 && priorities[j - 1] < priority) {
+                priorities[j] = priorities[j - 1];
+                moves.swap(j, j - 1);
+                j--;
+            }
+
+            priorities[j] = priority;
+        }
+    }
+
+    /**
+     * Renvoie le quart du plateau contenant la case [row, column]
+     */
+    private static int region(int row, int column, int rows, int columns) {
+        return (row < rows / 2 ? 0 : 2) + (column < columns / 2 ? 0 : 1);
+    }
+
+    /**
+     * Tri par insertion des coups selon leur priorité décroissante
+     */
+    private static void sort(int[] squares, long[] flips, int[] priorities, int count) {
+        for(int i = 1; i < count; i++) {
+            int square = squares[i];
+            long flip = flips[i];
+            int priority = priorities[i];
+            int j = i;
+
+            while(j > 0 && priorities[j - 1] < priority) {
+                squares[j] = squares[j - 1];
+                flips[j] = flips[j - 1];
+                priorities[j] = priorities[j - 1];
+                j--;
+            }
+
+            squares[j] = square;
+            flips[j] = flip;
+            priorities[j] = priority;
+        }
+    }
+
+    /**
+     * Convertit la différence de pièces finale selon le mode de résolution
+     */
+    private int finalScore(int diff) {
+        mEvaluations++;
+        return mMode == Mode.WIN_LOSS_DRAW ? Integer.signum(diff) : diff;
+    }
+
+    /**
+     * Informe mListener du meilleur coup connu à la racine
+     */
+    private void reportProgress(ReversiGame game, int empties, int square, int score) {
+        if(mListener != null)
+            mListener.searchProgress(empties, new MovePosition(square / game.getColumns(), square % game.getColumns()), score);
+    }
+
+    /**
+     * Interrompt la résolution si le temps alloué est écoulé ou si son thread a été interrompu
+     */
+    private void checkDeadline() {
+        if((mNodes & (DEADLINE_CHECK_INTERVAL - 1)) == 0
+            && (mSearchThread.isInterrupted() || (mDeadline != Long.MAX_VALUE && System.nanoTime() > mDeadline)))
+            throw SearchTimeoutException.INSTANCE;
+    }
+
+    /**
+     * Alloue les tableaux de coups nécessaires jusqu'au nombre de cases vides donné
+     * @param empties nombre de cases vides
+     * @param squares nombre de cases du plateau, nombre maximal de coups
+     */
+    private void ensureBuffers(int empties, int squares) {
+        if(mSquares.length > empties && mSquares[0].length >= squares)
+            return;
+
+        int levels = Math.max(empties + 1, mSquares.length);
+        mSquares = new int[levels][squares];
+        mFlips = new long[levels][squares];
+        mPriorities = new int[levels][squares];
+        mRegions = new int[levels][4];
+        mMoveLists = new MoveList[levels];
+
+        for(int i = 0; i < levels; i++) {
+            mMoveLists[i] = new MoveList(squares);
+        }
+    }
+
+    /**
+     * Calcule les masques des quarts d'un plateau autre que 8x8, s'ils ne sont pas déjà ceux de cette taille
+     * @param rows nombre de lignes
+     * @param columns nombre de colonnes
+     */
+    private void ensureRegionMasks(int rows, int columns) {
+        if(mRegionMasks != null && mRegionRows == rows && mRegionColumns == columns)
+            return;
+
+        int words = (rows * columns + 63) >>> 6;
+        mRegionMasks = new long[4][words];
+        for(int row = 0; row < rows; row++) {
+            for(int column = 0; column < columns; column++) {
+                int square = row * columns + column;
+                mRegionMasks[region(row, column, rows, columns)][square >>> 6] |= 1L << square;
+            }
+        }
+
+        mRegionRows = rows;
+        mRegionColumns = columns;
+    }
+
+    /**
+     * Table de hachage propre au solveur : mémorise un encadrement [lower, upper] du score exact
+     * de chaque position, ainsi que le meilleur coup trouvé.
+     * En cas de collision, la dernière position résolue remplace la précédente.
+     */
+    private static final class EndgameTable {
+        private final long[] mKeys;
+        private final int[] mBounds;
+        private final short[] mMoves;
+        private final int mMask;
+
+        EndgameTable(int sizeLog2) {
+            if(sizeLog2 <= 0 || sizeLog2 > 28)
+                throw new IllegalArgumentException("Table size must be between 2^1 and 2^28 entries");
+
+            int size = 1 << sizeLog2;
+
+            mKeys = new long[size];
+            mBounds = new int[size];
+            mMoves = new short[size];
+            mMask = size - 1;
+        }
+
+        /**
+         * Clé de hachage d'une position 8x8 vue du joueur courant
+         */
+        static long key(long own, long opp) {
+            long h = own * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(opp * 0xC2B2AE3D27D4EB4FL, 31);
+            h ^= h >>> 29;
+            h *= 0xBF58476D1CE4E5B9L;
+            return h ^ (h >>> 32);
+        }
+
+        /**
+         * @return index de l'entrée de la position, -1 si absente
+         */
+        int probe(long key) {
+            int slot = (int) key & mMask;
+            return mKeys[slot] == key && key != 0 ? slot : -1;
+        }
+
+        int getLower(int slot) {
+            return (short) (mBounds[slot] >> 16);
+        }
+
+        int getUpper(int slot) {
+            return (short) mBounds[slot];
+        }
+
+        int getMove(int slot) {
+            return mMoves[slot];
+        }
+
+        /**
+         * Enregistre le résultat d'une recherche fail-soft dans la fenêtre [alpha, beta]
+         */
+        void store(long key, int score, int alpha, int beta, int move) {
+            int lower = score > alpha ? score : -INFINITY;
+            int upper = score < beta ? score : INFINITY;
+            int slot = (int) key & mMask;
+
+            mKeys[slot] = key;
+            mBounds[slot] = (lower << 16) | (upper & 0xFFFF);
+            mMoves[slot] = (short) move;
+        }
+    }
+}
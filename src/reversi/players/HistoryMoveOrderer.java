@@ -0,0 +1,182 @@
+package reversi.players;
+
+import reversi.MoveList;
+import reversi.ReversiGame;
+
+import java.util.Arrays;
+
+/**
+ * Ordonnancement des coups combinant, par priorité décroissante :
+ * - le meilleur coup de la table de transposition ;
+ * - les deux coups "killer" de chaque niveau (derniers coups ayant provoqué une coupure à ce niveau) ;
+ * - la valeur statique de la case (coins en premier, cases X en dernier) ;
+ * - à valeur égale, l'historique des coupures de chaque case.
+ */
+public final class HistoryMoveOrderer extends AbstractMoveOrderer {
+
+    private static final int HASH_MOVE = 1 << 30;
+    private static final int FIRST_KILLER = 1 << 29;
+    private static final int SECOND_KILLER = 1 << 28;
+
+    // l'historique est divisé par deux lorsqu'une case atteint cette valeur
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    // valeurs statiques des cases selon leur position par rapport au bord
+    private static final int CORNER = 8;
+    private static final int EDGE = 4;
+    private static final int INNER = 0;
+    private static final int SECOND_RING = -2;
+    private static final int C_SQUARE = -4;
+    private static final int X_SQUARE = -8;
+
+    private int mRows = 0;
+    private int mColumns = 0;
+    private int[] mSquareValues = new int[0];
+
+    // historique des coupures, par couleur et par case
+    private int[][] mHistory = new int[2][0];
+
+    // coups killer par niveau
+    private int[][] mKillers = new int[0][];
+
+    private int[] mScores = new int[32];
+
+    @Override
+    public void order(ReversiGame game, MoveList moves, int ply, int hashMove) {
+        ensureBoard(game);
+        ensureKillers(ply);
+
+        int size = moves.size();
+        if(mScores.length < size)
+            mScores = new int[size * 2];
+
+        int[] history = mHistory[game.getCurrentPlayer().getColor().ordinal()];
+        int[] killers = mKillers[ply];
+
+        for(int i = 0; i < size; i++) {
+            int square = moves.getSquare(i);
+
+            if(square == hashMove)
+                mScores[i] = HASH_MOVE;
+            else if(square == killers[0])
+                mScores[i] = FIRST_KILLER;
+            else if(square == killers[1])
+                mScores[i] = SECOND_KILLER;
+            else
+                mScores[i] = mSquareValues[square] * HISTORY_LIMIT + history[square];
+        }
+
+        // tri par insertion : les listes sont courtes et souvent presque triées
+        for(int i = 1; i < size; i++) {
+            int score = mScores[i];
+            int j = i;
+
+            while(j > 0 && mScores[j - 1] < score) {
+                mScores[j] = mScores[j - 1];
+                moves.swap(j, j - 1);
+                j--;
+            }
+
+            mScores[j] = score;
+        }
+    }
+
+    @Override
+    public void cutoff(ReversiGame game, int square, int ply, int depth) {
+        ensureBoard(game);
+        ensureKillers(ply);
+
+        int[] killers = mKillers[ply];
+        if(killers[0] != square) {
+            killers[1] = killers[0];
+            killers[0] = square;
+        }
+
+        int[] history = mHistory[game.getCurrentPlayer().getColor().ordinal()];
+        history[square] += depth * depth;
+
+        if(history[square] >= HISTORY_LIMIT)
+            ageHistory();
+    }
+
+    @Override
+    public void newSearch() {
+        // les coups killer dépendent de la position explorée, l'historique reste pertinent
+        for(int[] killers : mKillers) {
+            Arrays.fill(killers, -1);
+        }
+
+        ageHistory();
+    }
+
+    @Override
+    public AbstractMoveOrderer copy() {
+        return new HistoryMoveOrderer();
+    }
+
+    /**
+     * Divise l'historique par deux, les coupures récentes prennent ainsi le pas sur les anciennes
+     */
+    private void ageHistory() {
+        for(int[] history : mHistory) {
+            for(int i = 0; i < history.length; i++) {
+                history[i] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Calcule les valeurs statiques des cases si la taille du plateau a changé
+     */
+    private void ensureBoard(ReversiGame game) {
+        int rows = game.getRows();
+        int columns = game.getColumns();
+
+        if(rows == mRows && columns == mColumns)
+            return;
+
+        mRows = rows;
+        mColumns = columns;
+        mSquareValues = new int[rows * columns];
+        mHistory = new int[2][rows * columns];
+
+        for(int row = 0; row < rows; row++) {
+            for(int column = 0; column < columns; column++) {
+                // distance au bord le plus proche, verticalement et horizontalement
+                int dr = Math.min(row, rows - 1 - row);
+                int dc = Math.min(column, columns - 1 - column);
+
+                int value;
+                if(dr == 0 && dc == 0)
+                    value = CORNER;
+                else if(dr == 1 && dc == 1)
+                    value = X_SQUARE;
+                else if(dr + dc == 1)
+                    value = C_SQUARE;
+                else if(dr == 0 || dc == 0)
+                    value = EDGE;
+                else if(dr == 1 || dc == 1)
+                    value = SECOND_RING;
+                else
+                    value = INNER;
+
+                mSquareValues[row * columns + column] = value;
+            }
+        }
+    }
+
+    /**
+     * Alloue les coups killer jusqu'au niveau donné
+     */
+    private void ensureKillers(int ply) {
+        if(mKillers.length > ply)
+            return;
+
+        int[][] killers = Arrays.copyOf(mKillers, ply + 1);
+        for(int i = mKillers.length; i < killers.length; i++) {
+            killers[i] = new int[] {-1, -1};
+        }
+
+        mKillers = killers;
+    }
+}
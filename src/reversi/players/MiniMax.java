@@ -1,19 +1,85 @@
 package reversi.players;
 
+import reversi.MoveList;
 import reversi.MovePosition;
+import reversi.PieceColor;
 import reversi.ReversiGame;
 import reversi.heuristics.AbstractHeuristic;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Algorithme Mini-Max
+ * Implémenté sous forme Negamax, avec élagage alpha-beta et recherche à fenêtre nulle (PVS) lorsqu'il est activé.
  */
 public final class MiniMax {
     private AbstractHeuristic mHeuristic;
 
     private boolean mUseAlphaBeta = false;
 
+    // listes de coups réutilisées d'une recherche à l'autre, une par niveau de profondeur
+    private MoveList[] mMoveLists = new MoveList[0];
+
+    // score du coup choisi lors de la dernière recherche
+    private double mLastScore = Double.NaN;
+
+    // table de transposition, null si désactivée
+    private TranspositionTable mTable = null;
+    private final TranspositionTable.Entry mEntry = new TranspositionTable.Entry();
+
+    // tirage au sort entre les coups de même score à la racine
+    private Random mRandom = new Random();
+    private double[] mRootScores = new double[0];
+
+    // recherche parallèle : les coups de la racine sont répartis entre plusieurs instances
+    private int mThreads = 1;
+    private ForkJoinPool mPool = null;
+    private BlockingQueue<MiniMax> mHelpers = null;
+
+    // ordonnancement des coups, null pour explorer le meilleur coup de la table puis l'ordre de génération
+    private AbstractMoveOrderer mOrderer = null;
+
+    // profondeur de l'itération en cours, pour calculer la distance à la racine
+    private int mRootDepth = 0;
+
+    // n'utilise que les entrées de la table explorées exactement à la profondeur demandée
+    private boolean mExactDepthProbes = false;
+
+    // fin du temps alloué à la recherche en cours (System.nanoTime)
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+    private static final SearchTimeoutException TIMEOUT = SearchTimeoutException.INSTANCE;
+    private long mDeadline = Long.MAX_VALUE;
+
+    // demande d'arrêt de la recherche en cours, partagée avec les instances auxiliaires
+    private AtomicBoolean mStopped = new AtomicBoolean();
+
+    // thread ayant lancé la recherche en cours : son interruption arrête aussi les instances auxiliaires
+    private Thread mSearchThread = null;
+
+    // progression de la recherche, null si personne ne la suit
+    private SearchListener mListener = null;
+
+    // compteurs de la recherche en cours
+    private long mNodes = 0;
+    private long mEvaluations = 0;
+    private long mCutoffs = 0;
+    private long mTableHits = 0;
+    private long mStartTime = 0;
+
+    // statistiques de la dernière recherche
+    private SearchStats mLastStats = null;
+
     public MiniMax(AbstractHeuristic heuristic) {
         mHeuristic = heuristic;
     }
@@ -23,122 +89,615 @@ public final class MiniMax {
      */
     public void enableAlphaBeta() {
         mUseAlphaBeta = true;
+        close();
+    }
+
+    /**
+     * Active la table de transposition : les positions atteintes par différents ordres de coups
+     * ne sont explorées qu'une fois. La table est conservée d'une recherche à l'autre.
+     * @param sizeLog2 logarithme en base 2 du nombre d'entrées de la table
+     */
+    public void enableTranspositionTable(int sizeLog2) {
+        mTable = new TranspositionTable(sizeLog2);
+        close();
+    }
+
+    /**
+     * Active l'ordonnancement des coups à chaque noeud de l'arbre
+     * @param orderer ordonnancement utilisé
+     */
+    public void enableMoveOrdering(AbstractMoveOrderer orderer) {
+        if(orderer == null)
+            throw new IllegalArgumentException("orderer cannot be null");
+
+        mOrderer = orderer;
+        close();
+    }
+
+    /**
+     * Active la recherche parallèle : après le premier coup, les coups de la racine sont explorés
+     * simultanément par plusieurs threads partageant la table de transposition.
+     * A profondeur fixe, le coup choisi ne dépend pas du nombre de threads ni de leur ordonnancement
+     * (seules les entrées de la table explorées à la profondeur exacte sont alors utilisées).
+     * @param threads nombre de threads
+     */
+    public void enableParallelSearch(int threads) {
+        if(threads <= 0)
+            throw new IllegalArgumentException("threads must be a positive integer");
+
+        mThreads = threads;
+        mExactDepthProbes = threads > 1;
+        close();
     }
 
     /**
-     * Explore l'arbre des possibilités en utilisant l'algorithme Mini-Max
-     * @return le mouvement choisi
+     * Arrête les threads de la recherche parallèle. La recherche reste utilisable :
+     * les threads sont recréés par la recherche parallèle suivante.
+     * Une recherche en cours sur un autre thread termine normalement les tâches déjà lancées.
+     */
+    public void close() {
+        if(mPool != null)
+            mPool.shutdown();
+
+        mPool = null;
+        mHelpers = null;
+    }
+
+    /**
+     * Fixe la graine utilisée pour départager les coups de même score.
+     * Avec une graine fixe, une même suite de recherches à profondeur fixe donne les mêmes coups.
+     * @param seed graine du générateur
+     */
+    public void setSeed(long seed) {
+        mRandom = new Random(seed);
+    }
+
+    /**
+     * Renvoie le score du coup choisi par la dernière recherche terminée,
+     * du point de vue du joueur qui devait jouer
+     * @return score du coup choisi
+     */
+    public double getLastScore() {
+        return mLastScore;
+    }
+
+    /**
+     * Renvoie les statistiques de la dernière recherche
+     * @return statistiques, null si aucune recherche n'a été lancée
+     */
+    public SearchStats getLastStats() {
+        return mLastStats;
+    }
+
+    /**
+     * Fixe l'objet informé de la progression des recherches suivantes
+     * @param listener objet appelé par le thread de la recherche, null pour ne plus suivre la progression
+     */
+    public void setSearchListener(SearchListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Demande l'arrêt de la recherche en cours, depuis n'importe quel thread.
+     * La recherche s'arrête au prochain contrôle du temps (tous les DEADLINE_CHECK_INTERVAL noeuds) :
+     * une recherche à profondeur fixe renvoie alors null, une recherche limitée en temps renvoie
+     * le meilleur coup de la dernière itération terminée (null si aucune ne l'est).
+     * La demande est oubliée au début de la recherche suivante.
+     * L'interruption du thread qui a lancé la recherche (Thread.interrupt) a le même effet.
+     */
+    public void stop() {
+        mStopped.set(true);
+    }
+
+    /**
+     * Indique si l'arrêt a été demandé depuis le début de la dernière recherche
+     * @return vrai si la recherche a été arrêtée
+     */
+    public boolean isStopped() {
+        return mStopped.get();
+    }
+
+    /**
+     * Explore l'arbre des possibilités en utilisant l'algorithme Mini-Max (sous sa forme Negamax)
+     * @return le mouvement choisi, null si la recherche a été arrêtée par stop()
      */
     public MovePosition explore(ReversiGame game, int depth) {
         if(game == null)
             throw new IllegalArgumentException("game cannot be null");
 
-        double alpha = Double.NEGATIVE_INFINITY;
-        double beta = Double.POSITIVE_INFINITY;
+        mDeadline = Long.MAX_VALUE;
+        ensureMoveLists(depth);
 
-        double maxScore = Double.NEGATIVE_INFINITY;
-        MovePosition bestMove = null;
+        startSearch();
 
-        List<MovePosition> moves = game.getPossibleMoves(game.getCurrentPlayer());
-        ReversiGame virtualGame;
+        // la recherche joue et annule les coups sur une seule copie de la partie
+        ReversiGame virtualGame = game.copy();
+        int bestIndex;
+        try {
+            bestIndex = searchRoot(virtualGame, depth, -1);
+        } catch(SearchTimeoutException e) {
+            finishSearch(0);
+            return null;
+        }
 
-        for(MovePosition pos : moves) {
+        finishSearch(depth);
 
-            virtualGame = game.copy();
+        return bestIndex < 0 ? null : mMoveLists[depth].getMove(bestIndex);
+    }
 
-            // simule le coup
-            virtualGame.play(pos);
+    /**
+     * Explore l'arbre des possibilités par approfondissement itératif dans le temps imparti :
+     * les profondeurs 1, 2, 3... sont explorées tant qu'il reste du temps,
+     * en commençant chaque itération par le meilleur coup de la précédente.
+     * @param game partie à explorer
+     * @param budget temps alloué à la recherche
+     * @return le mouvement choisi par la dernière itération terminée,
+     * null si la recherche a été arrêtée (stop() ou interruption du thread) avant la fin de la première itération
+     */
+    public MovePosition explore(ReversiGame game, Duration budget) {
+        if(game == null)
+            throw new IllegalArgumentException("game cannot be null");
+
+        if(budget == null || budget.isNegative() || budget.isZero())
+            throw new IllegalArgumentException("budget must be a positive duration");
 
-            double score = mini(virtualGame, depth - 1, alpha, beta);
+        mDeadline = System.nanoTime() + budget.toNanos();
 
-            if(score > maxScore || score == maxScore && Math.random() > 0.5) {
-                maxScore = score;
-                bestMove = pos;
+        startSearch();
+
+        ReversiGame virtualGame = game.copy();
+        MovePosition bestMove = null;
+        int bestSquare = -1;
+        int completedDepth = 0;
+
+        // au-delà du nombre de cases vides, l'arbre complet de la partie est déjà exploré
+        int empties = game.getRows() * game.getColumns()
+            - game.getScore(PieceColor.White) - game.getScore(PieceColor.Black);
+
+        for(int depth = 1; depth <= Math.max(1, empties); depth++) {
+            ensureMoveLists(depth);
+
+            try {
+                int bestIndex = searchRoot(virtualGame, depth, bestSquare);
+                if(bestIndex < 0) {
+                    finishSearch(depth);
+                    return null;
+                }
+
+                completedDepth = depth;
+                bestSquare = mMoveLists[depth].getSquare(bestIndex);
+                bestMove = mMoveLists[depth].getMove(bestIndex);
+            } catch(SearchTimeoutException e) {
+                // itération interrompue : la partie virtuelle n'est plus cohérente, on s'arrête
+                break;
             }
+        }
+
+        finishSearch(completedDepth);
+
+        // aucune itération terminée : si le temps est écoulé, on joue le premier coup possible,
+        // si la recherche a été arrêtée ou le thread interrompu, le coup ne doit pas être joué
+        if(bestMove == null) {
+            if(isStopped() || Thread.currentThread().isInterrupted())
+                return null;
 
+            MoveList moves = game.generateMoves();
+            return moves.isEmpty() ? null : moves.getMove(0);
         }
 
         return bestMove;
     }
 
     /**
-     * Calcul du min
-     * @return mouvement choisi
+     * Remet à zéro les compteurs et signale une nouvelle recherche à la table et à l'ordonnancement
      */
-    private double mini(ReversiGame game, int depth, double alpha, double beta) {
-        if(depth == 0 || game.isGameOver()){
-            return mHeuristic.evaluate(game);
-        }
+    private void startSearch() {
+        mStopped.set(false);
+        mSearchThread = Thread.currentThread();
+        mStartTime = System.nanoTime();
+        mNodes = 0;
+        mEvaluations = 0;
+        mCutoffs = 0;
+        mTableHits = 0;
+
+        if(mTable != null)
+            mTable.newSearch();
+
+        if(mOrderer != null)
+            mOrderer.newSearch();
+    }
+
+    /**
+     * Enregistre les statistiques de la recherche terminée
+     * @param depth profondeur de la dernière itération terminée
+     */
+    private void finishSearch(int depth) {
+        mLastStats = new SearchStats(mNodes, mEvaluations, mCutoffs, mTableHits, depth, System.nanoTime() - mStartTime);
+    }
 
-        double score = Double.POSITIVE_INFINITY;
+    /**
+     * Explore les coups du joueur courant à la profondeur donnée
+     * @param game partie virtuelle
+     * @param depth profondeur de l'exploration
+     * @param firstSquare case du coup à explorer en premier, -1 pour utiliser la table de transposition
+     * @return position du meilleur coup dans mMoveLists[depth], -1 si aucun coup n'est possible
+     */
+    private int searchRoot(ReversiGame game, int depth, int firstSquare) {
+        mRootDepth = depth;
 
-        List<MovePosition> moves = game.getPossibleMoves(game.getCurrentPlayer());
-        ReversiGame virtualGame;
+        MoveList moves = mMoveLists[depth];
+        game.generateMoves(moves);
 
-        // pas de coups, on passe au joueur suivant
-        if (moves.isEmpty()) {
-            virtualGame = game.copy();
-            virtualGame.play(); // ceci passera le tour au joueur suivant
-            return maxi(virtualGame, depth - 1, alpha, beta);
+        if(moves.isEmpty())
+            return -1;
+
+        // le meilleur coup de la recherche précédente est exploré en premier
+        if(firstSquare < 0 && mTable != null && mTable.probe(game.getHash(), mEntry)) {
+            mTableHits++;
+            firstSquare = mEntry.getMove();
         }
 
+        if(mOrderer != null)
+            mOrderer.order(game, moves, 0, firstSquare);
+        else if(firstSquare >= 0)
+            moves.moveToFront(firstSquare);
 
-        // minimum des noeuds fils
-        for(MovePosition pos : moves) {
+        if(mRootScores.length < moves.size())
+            mRootScores = new double[moves.size()];
 
-            virtualGame = game.copy();
+        // le premier coup est exploré avec une fenêtre complète
+        game.makeMove(moves, 0);
+        double maxScore = -negamax(game, depth - 1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        game.undoMove();
+        mRootScores[0] = maxScore;
+        reportProgress(depth, moves, 0, maxScore);
 
-            // simule le coup
-            virtualGame.play(pos);
+        if(mThreads > 1 && moves.size() > 1) {
+            maxScore = searchRootParallel(game, depth, moves, maxScore);
+        } else {
+            for(int i = 1; i < moves.size(); i++) {
+
+                // simule le coup
+                game.makeMove(moves, i);
 
-            score = Math.min(score, maxi(virtualGame, depth - 1, alpha, beta));
+                mRootScores[i] = searchRootMove(game, depth, maxScore);
 
-            if(mUseAlphaBeta && score >= beta)
-                return score;
+                game.undoMove();
 
-            beta = Math.min(beta, score);
+                if(mRootScores[i] > maxScore) {
+                    maxScore = mRootScores[i];
+                    reportProgress(depth, moves, i, maxScore);
+                }
+            }
         }
 
+        // tirage au sort entre les coups de même score
+        int ties = 0;
+        for(int i = 0; i < moves.size(); i++) {
+            if(mRootScores[i] == maxScore)
+                ties++;
+        }
+
+        int pick = ties > 1 ? mRandom.nextInt(ties) : 0;
+        int bestIndex = 0;
+        for(int i = 0; i < moves.size(); i++) {
+            if(mRootScores[i] == maxScore && pick-- == 0) {
+                bestIndex = i;
+                break;
+            }
+        }
+
+        if(mTable != null)
+            mTable.store(game.getHash(), depth, maxScore, TranspositionTable.EXACT, moves.getSquare(bestIndex));
+
+        mLastScore = maxScore;
+        reportProgress(depth, moves, bestIndex, maxScore);
+
+        return bestIndex;
+    }
+
+    /**
+     * Informe mListener du meilleur coup connu à la racine
+     * @param depth profondeur de l'itération en cours
+     * @param moves coups de la racine
+     * @param index position du meilleur coup dans moves
+     * @param score score de ce coup
+     */
+    private void reportProgress(int depth, MoveList moves, int index, double score) {
+        if(mListener != null)
+            mListener.searchProgress(depth, moves.getMove(index), score);
+    }
+
+    /**
+     * Explore un coup de la racine, déjà joué sur la partie donnée.
+     * Une fenêtre nulle juste sous le meilleur score est utilisée : seuls les coups au moins aussi bons
+     * sont réexplorés, les égalités obtiennent ainsi un score exact et peuvent être départagées.
+     * @param game partie virtuelle
+     * @param depth profondeur de l'exploration à la racine
+     * @param best meilleur score connu à la racine
+     * @return score exact si le coup est au moins aussi bon que best, majorant strictement inférieur sinon
+     */
+    private double searchRootMove(ReversiGame game, int depth, double best) {
+        if(!mUseAlphaBeta)
+            return -negamax(game, depth - 1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+        double alpha = Math.nextDown(best);
+        double score = -negamax(game, depth - 1, -best, -alpha);
+
+        if(score > alpha)
+            score = -negamax(game, depth - 1, Double.NEGATIVE_INFINITY, -alpha);
+
         return score;
     }
 
     /**
-     * Calcul du max
-     * @return mouvement choisi
+     * Explore en parallèle tous les coups de la racine sauf le premier
+     * @param game partie virtuelle
+     * @param depth profondeur de l'exploration
+     * @param moves coups de la racine
+     * @param firstScore score exact du premier coup
+     * @return meilleur score de la racine
+     */
+    private double searchRootParallel(ReversiGame game, int depth, MoveList moves, double firstScore) {
+        ensureHelpers();
+
+        // close() peut être appelée par un autre thread pendant la recherche
+        ForkJoinPool pool = mPool;
+        BlockingQueue<MiniMax> helpers = mHelpers;
+
+        // meilleur score connu, partagé entre les threads pour resserrer les fenêtres
+        AtomicLong best = new AtomicLong(Double.doubleToLongBits(firstScore));
+        long deadline = mDeadline;
+
+        List<Callable<Double>> tasks = new ArrayList<>(moves.size() - 1);
+        for(int i = 1; i < moves.size(); i++) {
+            final int index = i;
+
+            tasks.add(() -> {
+                MiniMax helper = helpers.take();
+                try {
+                    helper.mDeadline = deadline;
+                    helper.mSearchThread = mSearchThread;
+                    helper.mRootDepth = depth;
+                    helper.ensureMoveLists(depth);
+
+                    ReversiGame child = game.copy();
+                    child.makeMove(moves, index);
+
+                    double score = helper.searchRootMove(child, depth, Double.longBitsToDouble(best.get()));
+
+                    // les scores sont comparés en double, le mot de bits ne sert qu'au stockage atomique
+                    long current;
+                    while(score > Double.longBitsToDouble(current = best.get())) {
+                        if(best.compareAndSet(current, Double.doubleToLongBits(score)))
+                            break;
+                    }
+
+                    return score;
+                } finally {
+                    helpers.put(helper);
+                }
+            });
+        }
+
+        double maxScore = firstScore;
+
+        try {
+            List<Future<Double>> results = pool.invokeAll(tasks);
+            for(int i = 0; i < results.size(); i++) {
+                mRootScores[i + 1] = results.get(i).get();
+                maxScore = Math.max(maxScore, mRootScores[i + 1]);
+            }
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof SearchTimeoutException)
+                throw TIMEOUT;
+            throw new IllegalStateException("Parallel search failed", e.getCause());
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw TIMEOUT;
+        } finally {
+            // toutes les tâches sont terminées, les compteurs des instances auxiliaires sont ajoutés aux nôtres
+            for(MiniMax helper : helpers) {
+                mNodes += helper.mNodes;
+                mEvaluations += helper.mEvaluations;
+                mCutoffs += helper.mCutoffs;
+                mTableHits += helper.mTableHits;
+                helper.mNodes = helper.mEvaluations = helper.mCutoffs = helper.mTableHits = 0;
+            }
+        }
+
+        return maxScore;
+    }
+
+    /**
+     * Crée le pool de threads et les instances utilisées par la recherche parallèle
      */
-    private double maxi(ReversiGame game, int depth, double alpha, double beta) {
+    private void ensureHelpers() {
+        if(mPool != null)
+            return;
+
+        mPool = new ForkJoinPool(mThreads);
+        mHelpers = new ArrayBlockingQueue<>(mThreads);
+
+        for(int i = 0; i < mThreads; i++) {
+            MiniMax helper = new MiniMax(mHeuristic.copy());
+            helper.mUseAlphaBeta = mUseAlphaBeta;
+            helper.mTable = mTable;
+            helper.mStopped = mStopped;
+            helper.mExactDepthProbes = mExactDepthProbes;
+            helper.mOrderer = mOrderer != null ? mOrderer.copy() : null;
+            mHelpers.add(helper);
+        }
+    }
+
+    /**
+     * Algorithme Negamax avec recherche à fenêtre nulle (Principal Variation Search).
+     * Le score est toujours exprimé du point de vue du joueur dont c'est le tour :
+     * le score d'un noeud est l'opposé du meilleur score de ses fils.
+     * Les bornes sont "fail-soft" : le score renvoyé peut sortir de la fenêtre [alpha, beta].
+     * @param game partie virtuelle
+     * @param depth profondeur restante
+     * @param alpha score minimal déjà assuré au joueur courant
+     * @param beta score maximal que l'adversaire laissera au joueur courant
+     * @return score de la position pour le joueur courant
+     */
+    private double negamax(ReversiGame game, int depth, double alpha, double beta) {
+        mNodes++;
+
+        // contrôle fait avant de renvoyer les feuilles, qui sont la majorité des noeuds
+        checkDeadline();
+
         if(depth == 0 || game.isGameOver()) {
-            return mHeuristic.evaluate(game);
+            return evaluate(game);
         }
 
-        double score = Double.NEGATIVE_INFINITY;
+        double alphaOrig = alpha;
+        long hash = 0;
+        int hashMove = -1;
+
+        // la position a peut-être déjà été explorée
+        if(mTable != null) {
+            hash = game.getHash();
+            if(mTable.probe(hash, mEntry)) {
+                mTableHits++;
+                int storedDepth = mEntry.getDepth();
+                if(storedDepth == depth || storedDepth > depth && !mExactDepthProbes) {
+                    double stored = mEntry.getScore();
+                    byte flag = mEntry.getFlag();
+
+                    if(flag == TranspositionTable.EXACT)
+                        return stored;
+                    if(flag == TranspositionTable.LOWER_BOUND)
+                        alpha = Math.max(alpha, stored);
+                    else
+                        beta = Math.min(beta, stored);
+
+                    if(alpha >= beta)
+                        return stored;
+                }
+                hashMove = mEntry.getMove();
+            }
+        }
 
-        List<MovePosition> moves = game.getPossibleMoves(game.getCurrentPlayer());
-        ReversiGame virtualGame;
+        MoveList moves = mMoveLists[depth];
+        game.generateMoves(moves);
 
         // pas de coups, on passe au joueur suivant
-        if (moves.isEmpty()) {
-            virtualGame = game.copy();
-            virtualGame.play(); // ceci passera le tour au joueur suivant
-            return mini(virtualGame, depth - 1, alpha, beta);
+        if(moves.isEmpty()) {
+            // aucun des deux joueurs ne peut jouer : la partie est terminée
+            if(!game.hasLastPlayerMoved())
+                return evaluate(game);
+
+            game.makePass();
+            double score = -negamax(game, depth - 1, -beta, -alpha);
+            game.undoMove();
+            return score;
         }
 
-        // maximum des noeuds fils
-        for(MovePosition pos : moves) {
+        // le meilleur coup connu est exploré en premier
+        if(mOrderer != null)
+            mOrderer.order(game, moves, mRootDepth - depth, hashMove);
+        else if(hashMove >= 0)
+            moves.moveToFront(hashMove);
+
+        double bestScore = Double.NEGATIVE_INFINITY;
+        int bestMove = -1;
 
-            virtualGame = game.copy();
+        for(int i = 0; i < moves.size(); i++) {
 
             // simule le coup
-            virtualGame.play(pos);
+            game.makeMove(moves, i);
+
+            double score;
+            if(i == 0 || !mUseAlphaBeta) {
+                score = -negamax(game, depth - 1, -beta, -alpha);
+            } else {
+                // on vérifie d'abord avec une fenêtre nulle que le coup ne fait pas mieux que alpha
+                score = -negamax(game, depth - 1, -Math.nextUp(alpha), -alpha);
+                if(score > alpha && score < beta)
+                    score = -negamax(game, depth - 1, -beta, -score);
+            }
+
+            game.undoMove();
 
-            score = Math.max(alpha, mini(virtualGame, depth - 1, alpha, beta));
+            if(score > bestScore) {
+                bestScore = score;
+                bestMove = moves.getSquare(i);
+            }
 
-            if(mUseAlphaBeta && score <= alpha)
-                return score;
+            if(bestScore > alpha)
+                alpha = bestScore;
 
-            alpha = Math.max(alpha, score);
+            if(mUseAlphaBeta && alpha >= beta) {
+                mCutoffs++;
+                if(mOrderer != null)
+                    mOrderer.cutoff(game, bestMove, mRootDepth - depth, depth);
+                break;
+            }
         }
 
-        return score;
+        storeResult(hash, depth, bestScore, alphaOrig, beta, bestMove);
+
+        return bestScore;
+    }
+
+    /**
+     * Évalue une feuille de l'arbre avec l'heuristique
+     */
+    private double evaluate(ReversiGame game) {
+        mEvaluations++;
+        return mHeuristic.evaluate(game);
+    }
+
+    /**
+     * Interrompt la recherche si le temps alloué est écoulé, si l'arrêt a été demandé
+     * ou si le thread qui a lancé la recherche a été interrompu.
+     * L'horloge et les demandes d'arrêt ne sont consultées que tous les DEADLINE_CHECK_INTERVAL noeuds.
+     */
+    private void checkDeadline() {
+        if((mNodes & (DEADLINE_CHECK_INTERVAL - 1)) == 0
+            && (mStopped.get() || mSearchThread.isInterrupted()
+                || (mDeadline != Long.MAX_VALUE && System.nanoTime() > mDeadline)))
+            throw TIMEOUT;
+    }
+
+    /**
+     * Enregistre le résultat de l'exploration d'une position dans la table de transposition
+     * @param hash clé de la position
+     * @param depth profondeur restante
+     * @param score score obtenu
+     * @param alpha borne alpha à l'entrée du noeud
+     * @param beta borne beta à l'entrée du noeud
+     * @param bestMove case du meilleur coup
+     */
+    private void storeResult(long hash, int depth, double score, double alpha, double beta, int bestMove) {
+        if(mTable == null)
+            return;
+
+        byte flag = TranspositionTable.EXACT;
+        if(mUseAlphaBeta) {
+            if(score <= alpha)
+                flag = TranspositionTable.UPPER_BOUND;
+            else if(score >= beta)
+                flag = TranspositionTable.LOWER_BOUND;
+        }
+
+        mTable.store(hash, depth, score, flag, bestMove);
+    }
+
+    /**
+     * Alloue les listes de coups nécessaires pour une recherche à la profondeur donnée
+     * @param depth profondeur de la recherche
+     */
+    private void ensureMoveLists(int depth) {
+        if(mMoveLists.length > depth)
+            return;
+
+        MoveList[] lists = new MoveList[depth + 1];
+        for(int i = 0; i < lists.length; i++) {
+            lists[i] = i < mMoveLists.length ? mMoveLists[i] : new MoveList();
+        }
+
+        mMoveLists = lists;
     }
 }
@@ -0,0 +1,19 @@
+package reversi.players;
+
+import reversi.MovePosition;
+
+/**
+ * Reçoit la progression d'une recherche (MiniMax ou résolution exacte de la fin de partie).
+ * Les méthodes sont appelées par le thread de la recherche, qui attend leur retour :
+ * elles doivent être rapides et transmettre elles-mêmes les informations au thread de l'interface.
+ */
+public interface SearchListener {
+
+    /**
+     * Méthode appelée lorsque le meilleur coup connu à la racine change, et à la fin de chaque itération
+     * @param depth profondeur de l'itération en cours, nombre de cases vides pour la résolution exacte
+     * @param bestMove meilleur coup connu
+     * @param score score de ce coup, du point de vue du joueur qui cherche son coup
+     */
+    void searchProgress(int depth, MovePosition bestMove, double score);
+}
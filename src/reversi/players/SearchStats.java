@@ -0,0 +1,91 @@
+package reversi.players;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Statistiques d'une recherche : noeuds visités, évaluations, coupures, succès de la table de transposition,
+ * profondeur atteinte et durée.
+ */
+public final class SearchStats {
+    private final long mNodes;
+    private final long mEvaluations;
+    private final long mCutoffs;
+    private final long mTableHits;
+    private final int mDepth;
+    private final long mElapsedNanos;
+
+    /**
+     * Constructeur
+     * @param nodes nombre de noeuds visités
+     * @param evaluations nombre de positions évaluées (feuilles)
+     * @param cutoffs nombre de coupures beta
+     * @param tableHits nombre de positions trouvées dans la table de transposition
+     * @param depth profondeur de la dernière itération terminée
+     * @param elapsedNanos durée de la recherche en nanosecondes
+     */
+    public SearchStats(long nodes, long evaluations, long cutoffs, long tableHits, int depth, long elapsedNanos) {
+        mNodes = nodes;
+        mEvaluations = evaluations;
+        mCutoffs = cutoffs;
+        mTableHits = tableHits;
+        mDepth = depth;
+        mElapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return nombre de noeuds visités
+     */
+    public long getNodes() {
+        return mNodes;
+    }
+
+    /**
+     * @return nombre de positions évaluées (feuilles)
+     */
+    public long getEvaluations() {
+        return mEvaluations;
+    }
+
+    /**
+     * @return nombre de coupures beta
+     */
+    public long getCutoffs() {
+        return mCutoffs;
+    }
+
+    /**
+     * @return nombre de positions trouvées dans la table de transposition
+     */
+    public long getTableHits() {
+        return mTableHits;
+    }
+
+    /**
+     * @return profondeur de la dernière itération terminée
+     */
+    public int getDepth() {
+        return mDepth;
+    }
+
+    /**
+     * @return durée de la recherche
+     */
+    public Duration getElapsed() {
+        return Duration.ofNanos(mElapsedNanos);
+    }
+
+    /**
+     * @return nombre de noeuds visités par seconde
+     */
+    public double getNodesPerSecond() {
+        return mElapsedNanos > 0 ? mNodes * 1e9 / mElapsedNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+            "depth %d, %d nodes, %d evaluations, %d cutoffs, %d table hits, %.1f ms, %.0f nodes/s",
+            mDepth, mNodes, mEvaluations, mCutoffs, mTableHits, mElapsedNanos / 1e6, getNodesPerSecond());
+    }
+}
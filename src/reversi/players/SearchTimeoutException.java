@@ -0,0 +1,15 @@
+package reversi.players;
+
+/**
+ * Levée lorsque le temps alloué à une recherche est écoulé.
+ * Une seule instance est utilisée, sans pile d'appels, pour que l'interruption ne coûte rien.
+ */
+final class SearchTimeoutException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    static final SearchTimeoutException INSTANCE = new SearchTimeoutException();
+
+    private SearchTimeoutException() {
+        super("Search deadline exceeded", null, false, false);
+    }
+}
@@ -0,0 +1,148 @@
+package reversi.players;
+
+/**
+ * Table de transposition
+ * Mémorise le résultat des positions déjà explorées, indexées par leur clé de hachage de Zobrist.
+ * Les entrées sont stockées dans des tableaux de types primitifs de taille fixe.
+ * En cas de collision, l'entrée explorée le plus profondément est conservée,
+ * sauf si elle date d'une recherche précédente.
+ *
+ * La table peut être partagée entre plusieurs threads sans verrou : chaque entrée est vérifiée
+ * par un mot de contrôle (clé ^ score ^ données), une entrée en cours d'écriture par un autre
+ * thread est donc simplement vue comme absente.
+ */
+public final class TranspositionTable {
+
+    // types de score stockés
+    public static final byte EXACT = 0;
+    public static final byte LOWER_BOUND = 1;
+    public static final byte UPPER_BOUND = 2;
+
+    // bit indiquant qu'une entrée est occupée
+    private static final long USED = 1L << 40;
+
+    private final long[] mChecks;
+    private final long[] mScores;
+    private final long[] mData;
+    private final int mMask;
+
+    // numéro de la recherche en cours
+    private int mAge = 0;
+
+    /**
+     * Constructeur
+     * @param sizeLog2 logarithme en base 2 du nombre d'entrées
+     */
+    public TranspositionTable(int sizeLog2) {
+        if(sizeLog2 <= 0 || sizeLog2 > 28)
+            throw new IllegalArgumentException("Table size must be between 2^1 and 2^28 entries");
+
+        int size = 1 << sizeLog2;
+
+        mChecks = new long[size];
+        mScores = new long[size];
+        mData = new long[size];
+        mMask = size - 1;
+    }
+
+    /**
+     * Signale le début d'une nouvelle recherche : les entrées existantes deviennent remplaçables.
+     * Doit être appelée avant de lancer les threads de recherche.
+     */
+    public void newSearch() {
+        mAge = (mAge + 1) & 0xFF;
+    }
+
+    /**
+     * Recherche la position donnée dans la table
+     * @param key clé de hachage de la position
+     * @param entry entrée à remplir avec le contenu de la table
+     * @return vrai si la position a été trouvée
+     */
+    public boolean probe(long key, Entry entry) {
+        int index = (int) key & mMask;
+
+        long score = mScores[index];
+        long data = mData[index];
+        long check = mChecks[index];
+
+        if(data == 0 || (check ^ score ^ data) != key)
+            return false;
+
+        entry.mScore = Double.longBitsToDouble(score);
+        entry.mMove = (int) (data & 0xFFFF) - 1;
+        entry.mDepth = (int) (data >>> 16) & 0xFF;
+        entry.mFlag = (byte) ((data >>> 24) & 0x3);
+        return true;
+    }
+
+    /**
+     * Enregistre le résultat de l'exploration d'une position
+     * @param key clé de hachage de la position
+     * @param depth profondeur restante lors de l'exploration (au moins 1)
+     * @param score score de la position
+     * @param flag EXACT, LOWER_BOUND ou UPPER_BOUND
+     * @param move index de la case du meilleur coup, -1 si inconnu
+     */
+    public void store(long key, int depth, double score, byte flag, int move) {
+        int index = (int) key & mMask;
+        long old = mData[index];
+
+        // une entrée plus profonde de la recherche en cours est conservée
+        if(old != 0
+            && (mChecks[index] ^ mScores[index] ^ old) != key
+            && ((old >>> 32) & 0xFF) == mAge
+            && ((old >>> 16) & 0xFF) > depth)
+            return;
+
+        long bits = Double.doubleToRawLongBits(score);
+        long data = USED
+            | ((long) mAge << 32)
+            | ((long) flag << 24)
+            | ((long) Math.min(depth, 0xFF) << 16)
+            | ((move + 1) & 0xFFFF);
+
+        mScores[index] = bits;
+        mData[index] = data;
+        mChecks[index] = key ^ bits ^ data;
+    }
+
+    /**
+     * Contenu d'une entrée de la table, rempli par probe.
+     * Chaque thread de recherche utilise sa propre instance.
+     */
+    public static final class Entry {
+        private double mScore;
+        private int mMove;
+        private int mDepth;
+        private byte mFlag;
+
+        /**
+         * @return score de la position
+         */
+        public double getScore() {
+            return mScore;
+        }
+
+        /**
+         * @return index de la case du meilleur coup, -1 si inconnu
+         */
+        public int getMove() {
+            return mMove;
+        }
+
+        /**
+         * @return profondeur restante lors de l'exploration
+         */
+        public int getDepth() {
+            return mDepth;
+        }
+
+        /**
+         * @return EXACT, LOWER_BOUND ou UPPER_BOUND
+         */
+        public byte getFlag() {
+            return mFlag;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package reversi.tournament;
+
+import java.util.Locale;
+
+/**
+ * Résultat d'une partie de tournoi, vu du joueur A
+ */
+public final class GameResult {
+    public static final String CSV_HEADER =
+        "game,opening,a_color,a_discs,b_discs,result,disc_diff,a_moves,a_ms_per_move,b_moves,b_ms_per_move";
+
+    private final int mGame;
+    private final long mOpening;
+    private final boolean mAIsWhite;
+    private final int mADiscs;
+    private final int mBDiscs;
+    private final int mAMoves;
+    private final long mANanos;
+    private final int mBMoves;
+    private final long mBNanos;
+
+    /**
+     * Constructeur
+     * @param game numéro de la partie
+     * @param opening graine de l'ouverture aléatoire
+     * @param aIsWhite vrai si le joueur A joue les blancs
+     * @param aDiscs nombre de pièces finales du joueur A
+     * @param bDiscs nombre de pièces finales du joueur B
+     * @param aMoves nombre de coups cherchés par le joueur A
+     * @param aNanos temps total de recherche du joueur A
+     * @param bMoves nombre de coups cherchés par le joueur B
+     * @param bNanos temps total de recherche du joueur B
+     */
+    public GameResult(int game, long opening, boolean aIsWhite, int aDiscs, int bDiscs,
+                      int aMoves, long aNanos, int bMoves, long bNanos) {
+        mGame = game;
+        mOpening = opening;
+        mAIsWhite = aIsWhite;
+        mADiscs = aDiscs;
+        mBDiscs = bDiscs;
+        mAMoves = aMoves;
+        mANanos = aNanos;
+        mBMoves = bMoves;
+        mBNanos = bNanos;
+    }
+
+    /**
+     * @return différence de pièces finale du joueur A
+     */
+    public int getDiscDifference() {
+        return mADiscs - mBDiscs;
+    }
+
+    /**
+     * @return 1 si le joueur A gagne, 0 en cas d'égalité, -1 s'il perd
+     */
+    public int getOutcome() {
+        return Integer.signum(getDiscDifference());
+    }
+
+    /**
+     * @return temps total de recherche du joueur A, en nanosecondes
+     */
+    public long getANanos() {
+        return mANanos;
+    }
+
+    /**
+     * @return nombre de coups cherchés par le joueur A
+     */
+    public int getAMoves() {
+        return mAMoves;
+    }
+
+    /**
+     * @return temps total de recherche du joueur B, en nanosecondes
+     */
+    public long getBNanos() {
+        return mBNanos;
+    }
+
+    /**
+     * @return nombre de coups cherchés par le joueur B
+     */
+    public int getBMoves() {
+        return mBMoves;
+    }
+
+    /**
+     * @return ligne CSV correspondant à CSV_HEADER
+     */
+    public String toCSV() {
+        String result = getOutcome() > 0 ? "win" : getOutcome() < 0 ? "loss" : "draw";
+
+        return String.format(Locale.ROOT, "%d,%d,%s,%d,%d,%s,%d,%d,%.3f,%d,%.3f",
+            mGame, mOpening, mAIsWhite ? "white" : "black", mADiscs, mBDiscs, result, getDiscDifference(),
+            mAMoves, millisPerMove(mANanos, mAMoves), mBMoves, millisPerMove(mBNanos, mBMoves));
+    }
+
+    private static double millisPerMove(long nanos, int moves) {
+        return moves > 0 ? nanos / 1e6 / moves : 0;
+    }
+}
@@ -0,0 +1,118 @@
+package reversi.tournament;
+
+import reversi.PieceColor;
+import reversi.heuristics.AbstractHeuristic;
+import reversi.heuristics.HeuristicWeights;
+import reversi.heuristics.PatternHeuristic;
+import reversi.players.AIPlayer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Configuration d'un joueur IA de tournoi, décrite par une chaîne "heuristique:limite".
+ * L'heuristique est score, mobility, corners, frontier, composite (poids par défaut)
+ * le chemin d'un fichier de poids de CompositeHeurstic ou "pattern=fichier" pour PatternHeuristic, la limite est une profondeur ("5") ou un temps par coup en millisecondes ("200ms").
+ */
+public final class PlayerSpec {
+    private static final String PATTERN_PREFIX = "pattern=";
+
+    private final String mName;
+    private final String mHeuristic;
+    private final int mDepth;
+    private final Duration mBudget;
+
+    private PlayerSpec(String name, String heuristic, int depth, Duration budget) {
+        mName = name;
+        mHeuristic = heuristic;
+        mDepth = depth;
+        mBudget = budget;
+    }
+
+    /**
+     * Analyse la description d'un joueur
+     * @param spec description "heuristique:profondeur" ou "heuristique:tempsms"
+     * @return configuration du joueur
+     */
+    public static PlayerSpec parse(String spec) {
+        int separator = spec.indexOf(':');
+        if(separator < 0)
+            throw new IllegalArgumentException("Player must be described as heuristic:depth or heuristic:time ms, got " + spec);
+
+        String heuristic = spec.substring(0, separator);
+        String limit = spec.substring(separator + 1);
+
+        // vérifie que l'heuristique existe
+        createHeuristic(heuristic);
+
+        if(limit.endsWith("ms")) {
+            long millis = Long.parseLong(limit.substring(0, limit.length() - 2));
+            if(millis <= 0)
+                throw new IllegalArgumentException("Time per move must be positive, got " + spec);
+
+            return new PlayerSpec(spec, heuristic, 0, Duration.ofMillis(millis));
+        }
+
+        int depth = Integer.parseInt(limit);
+        if(depth <= 0)
+            throw new IllegalArgumentException("Depth must be a positive integer, got " + spec);
+
+        return new PlayerSpec(spec, heuristic, depth, null);
+    }
+
+    /**
+     * @return description du joueur
+     */
+    public String getName() {
+        return mName;
+    }
+
+    /**
+     * Crée un nouveau joueur de la couleur donnée, qui résout exactement la fin de partie
+     * @param c couleur du joueur
+     * @param seed graine utilisée pour départager les coups de même score
+     * @return joueur
+     */
+    public AIPlayer create(PieceColor c, long seed) {
+        AbstractHeuristic heuristic = createHeuristic(mHeuristic);
+        AIPlayer player = mBudget != null ? new AIPlayer(c, heuristic, mBudget) : new AIPlayer(c, heuristic, mDepth);
+        player.setSeed(seed);
+        player.enableEndgameSolver();
+        return player;
+    }
+
+    /**
+     * Crée l'heuristique correspondant au nom donné
+     */
+    private static AbstractHeuristic createHeuristic(String name) {
+        if(name.equals("composite"))
+            return HeuristicWeights.createDefault().createHeuristic();
+
+        if(name.startsWith(PATTERN_PREFIX))
+            return new PatternHeuristic(Paths.get(name.substring(PATTERN_PREFIX.length())));
+
+        for(String heuristic : HeuristicWeights.NAMES) {
+            if(heuristic.equals(name))
+                return HeuristicWeights.createHeuristic(name);
+        }
+
+        Path file = Paths.get(name);
+        if(!Files.isRegularFile(file))
+            throw new IllegalArgumentException("Unknown heuristic " + name + ", expected score, mobility, corners, frontier, composite, pattern=file or a weights file");
+
+        try {
+            return HeuristicWeights.load(file).createHeuristic();
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return mName;
+    }
+}
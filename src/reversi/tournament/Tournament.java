@@ -0,0 +1,248 @@
+package reversi.tournament;
+
+import reversi.MovePosition;
+import reversi.PieceColor;
+import reversi.ReversiGame;
+import reversi.players.AIPlayer;
+import reversi.players.PlayerInterface;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tournoi entre deux configurations de joueurs IA, sans interface graphique.
+ * Les parties sont jouées en parallèle, chacune sur un thread. Chaque ouverture aléatoire est jouée deux fois,
+ * les joueurs échangeant leurs couleurs, pour que l'ouverture ne favorise aucun des deux.
+ * Les résultats sont écrits au format CSV au fur et à mesure que les parties se terminent.
+ *
+ * Usage : java -cp bin reversi.tournament.Tournament [-games n] [-threads n] [-opening plies] [-seed s]
+ *         [-out fichier.csv] joueurA joueurB
+ * Les joueurs sont décrits par "heuristique:profondeur" ou "heuristique:tempsms" (voir PlayerSpec).
+ */
+public final class Tournament {
+
+    private final PlayerSpec mPlayerA;
+    private final PlayerSpec mPlayerB;
+    private int mGames = 100;
+    private int mThreads = Runtime.getRuntime().availableProcessors();
+    private int mOpeningPlies = 6;
+    private long mSeed = 0;
+
+    /**
+     * Constructeur
+     * @param playerA configuration du joueur A
+     * @param playerB configuration du joueur B
+     */
+    public Tournament(PlayerSpec playerA, PlayerSpec playerB) {
+        if(playerA == null || playerB == null)
+            throw new IllegalArgumentException("playerA and playerB must not be null values");
+
+        mPlayerA = playerA;
+        mPlayerB = playerB;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String output = null;
+        int games = 100, threads = Runtime.getRuntime().availableProcessors(), opening = 6;
+        long seed = 0;
+        String playerA = null, playerB = null;
+
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "-games":
+                    games = Integer.parseInt(args[++i]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-opening":
+                    opening = Integer.parseInt(args[++i]);
+                    break;
+                case "-seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "-out":
+                    output = args[++i];
+                    break;
+                default:
+                    if(playerA == null)
+                        playerA = args[i];
+                    else
+                        playerB = args[i];
+            }
+        }
+
+        if(playerA == null || playerB == null)
+            throw new IllegalArgumentException("Two players must be given, e.g. composite:5 mobility:5");
+
+        Tournament tournament = new Tournament(PlayerSpec.parse(playerA), PlayerSpec.parse(playerB));
+        tournament.setGames(games);
+        tournament.setThreads(threads);
+        tournament.setOpeningPlies(opening);
+        tournament.setSeed(seed);
+
+        if(output == null) {
+            tournament.run(new PrintWriter(System.out, true));
+        } else {
+            try(PrintWriter writer = new PrintWriter(new FileWriter(output))) {
+                tournament.run(writer);
+            }
+        }
+    }
+
+    /**
+     * @param games nombre de parties à jouer
+     */
+    public void setGames(int games) {
+        if(games <= 0)
+            throw new IllegalArgumentException("games must be a positive integer");
+
+        mGames = games;
+    }
+
+    /**
+     * @param threads nombre de parties jouées simultanément
+     */
+    public void setThreads(int threads) {
+        if(threads <= 0)
+            throw new IllegalArgumentException("threads must be a positive integer");
+
+        mThreads = threads;
+    }
+
+    /**
+     * @param plies nombre de coups aléatoires joués au début de chaque partie
+     */
+    public void setOpeningPlies(int plies) {
+        if(plies < 0)
+            throw new IllegalArgumentException("plies cannot be negative");
+
+        mOpeningPlies = plies;
+    }
+
+    /**
+     * @param seed graine des ouvertures aléatoires et des joueurs, rend le tournoi reproductible à profondeur fixe
+     */
+    public void setSeed(long seed) {
+        mSeed = seed;
+    }
+
+    /**
+     * Joue toutes les parties et écrit leurs résultats au format CSV, puis le bilan du tournoi sur la sortie standard
+     * @param csv destination des résultats
+     */
+    public void run(PrintWriter csv) {
+        ExecutorService executor = Executors.newFixedThreadPool(mThreads);
+        CompletionService<GameResult> results = new ExecutorCompletionService<>(executor);
+
+        for(int i = 0; i < mGames; i++) {
+            final int game = i;
+            results.submit(() -> playGame(game));
+        }
+
+        int wins = 0, draws = 0, losses = 0;
+        long discDifference = 0;
+        long aNanos = 0, bNanos = 0;
+        int aMoves = 0, bMoves = 0;
+
+        csv.println(GameResult.CSV_HEADER);
+        csv.flush();
+
+        try {
+            for(int i = 0; i < mGames; i++) {
+                GameResult result = results.take().get();
+
+                csv.println(result.toCSV());
+                csv.flush();
+
+                if(result.getOutcome() > 0)
+                    wins++;
+                else if(result.getOutcome() < 0)
+                    losses++;
+                else
+                    draws++;
+
+                discDifference += result.getDiscDifference();
+                aNanos += result.getANanos();
+                aMoves += result.getAMoves();
+                bNanos += result.getBNanos();
+                bMoves += result.getBMoves();
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException e) {
+            throw new IllegalStateException("Tournament game failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int played = wins + draws + losses;
+        System.out.println(String.format(Locale.ROOT,
+            "%s vs %s : %d games, %d wins, %d draws, %d losses (%.1f%%), mean disc differential %+.2f, ms per move %.2f vs %.2f",
+            mPlayerA, mPlayerB, played, wins, draws, losses,
+            played > 0 ? 100.0 * (wins + 0.5 * draws) / played : 0,
+            played > 0 ? (double) discDifference / played : 0,
+            aMoves > 0 ? aNanos / 1e6 / aMoves : 0, bMoves > 0 ? bNanos / 1e6 / bMoves : 0));
+    }
+
+    /**
+     * Joue une partie complète
+     * @param game numéro de la partie : les parties 2n et 2n+1 partagent la même ouverture
+     * @return résultat vu du joueur A
+     */
+    private GameResult playGame(int game) {
+        long opening = mSeed * 31 + game / 2;
+        boolean aIsWhite = game % 2 == 0;
+
+        PieceColor aColor = aIsWhite ? PieceColor.White : PieceColor.Black;
+        PieceColor bColor = aIsWhite ? PieceColor.Black : PieceColor.White;
+        AIPlayer playerA = mPlayerA.create(aColor, opening);
+        AIPlayer playerB = mPlayerB.create(bColor, opening + 1);
+
+        ReversiGame g = new ReversiGame(playerA, playerB);
+        g.init();
+
+        // ouverture aléatoire
+        Random random = new Random(opening);
+        for(int i = 0; i < mOpeningPlies && !g.isGameOver(); i++) {
+            List<MovePosition> moves = g.getPossibleMoves(g.getCurrentPlayer());
+            g.play(moves.isEmpty() ? null : moves.get(random.nextInt(moves.size())));
+        }
+
+        int aMoves = 0, bMoves = 0;
+        long aNanos = 0, bNanos = 0;
+
+        while(!g.isGameOver()) {
+            PlayerInterface player = g.getCurrentPlayer();
+
+            long start = System.nanoTime();
+            MovePosition move = player.playTurn(g);
+            long elapsed = System.nanoTime() - start;
+
+            // les tours passés ne comptent pas dans le temps par coup
+            if(move != null) {
+                if(player == playerA) {
+                    aMoves++;
+                    aNanos += elapsed;
+                } else {
+                    bMoves++;
+                    bNanos += elapsed;
+                }
+            }
+
+            g.play(move);
+        }
+
+        return new GameResult(game, opening, aIsWhite, g.getScore(aColor), g.getScore(bColor),
+            aMoves, aNanos, bMoves, bNanos);
+    }
+}
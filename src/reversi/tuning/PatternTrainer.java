@@ -0,0 +1,223 @@
+package reversi.tuning;
+
+import reversi.heuristics.PatternWeights;
+import reversi.heuristics.Patterns;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Apprentissage des tables de PatternHeuristic sur des positions étiquetées.
+ *
+ * Les positions sont lues dans le format écrit par Tuner (option -save-positions) :
+ * plateau 8x8, joueur dont c'est le tour (X ou O) et résultat final pour ce joueur (1, 0.5 ou 0).
+ * Les poids sont ajustés par descente de gradient stochastique sur la perte logistique,
+ * la somme des poids des motifs d'une position étant le logit de sa probabilité de gain.
+ * Ils sont ensuite quantifiés sur 16 bits et l'évaluation est exprimée en centièmes de logit.
+ *
+ * Usage : java -cp bin reversi.tuning.PatternTrainer -positions fichier [-phases n] [-epochs n] [-rate r]
+ *         [-seed s] -out fichier
+ */
+public final class PatternTrainer {
+
+    // régularisation L2 appliquée aux poids modifiés
+    private static final double L2 = 1e-4;
+
+    private final int mPhases;
+    private final float[][][] mWeights;
+
+    // index des motifs, phase et résultat de chaque position
+    private final List<int[]> mIndexes = new ArrayList<>();
+    private final List<Integer> mPhasesOf = new ArrayList<>();
+    private final List<Double> mResults = new ArrayList<>();
+
+    /**
+     * Constructeur
+     * @param phases nombre de phases de jeu
+     */
+    public PatternTrainer(int phases) {
+        if(phases <= 0 || phases > 61)
+            throw new IllegalArgumentException("phases must be between 1 and 61");
+
+        mPhases = phases;
+        mWeights = new float[phases][Patterns.TYPE_COUNT][];
+        for(int phase = 0; phase < phases; phase++) {
+            for(int type = 0; type < Patterns.TYPE_COUNT; type++) {
+                mWeights[phase][type] = new float[Patterns.getTableSize(type)];
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int phases = 6, epochs = 20;
+        double rate = 0.01;
+        long seed = 0;
+        String positions = null, output = null;
+
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "-positions":
+                    positions = args[++i];
+                    break;
+                case "-phases":
+                    phases = Integer.parseInt(args[++i]);
+                    break;
+                case "-epochs":
+                    epochs = Integer.parseInt(args[++i]);
+                    break;
+                case "-rate":
+                    rate = Double.parseDouble(args[++i]);
+                    break;
+                case "-seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "-out":
+                    output = args[++i];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        if(positions == null || output == null)
+            throw new IllegalArgumentException("A positions file must be given with -positions and an output file with -out");
+
+        PatternTrainer trainer = new PatternTrainer(phases);
+        trainer.loadPositions(positions);
+        System.out.println(trainer.mResults.size() + " positions");
+
+        Random random = new Random(seed);
+        for(int epoch = 1; epoch <= epochs; epoch++) {
+            double error = trainer.train(rate, random);
+            System.out.println(String.format(Locale.ROOT, "epoch %d : mean squared error %.5f", epoch, error));
+        }
+
+        trainer.toWeights().write(Paths.get(output));
+        System.out.println("Pattern weights written to " + output);
+    }
+
+    /**
+     * Lit des positions étiquetées, une par ligne
+     * @param file chemin du fichier
+     * @throws IOException si le fichier ne peut pas être lu
+     */
+    public void loadPositions(String file) throws IOException {
+        try(BufferedReader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            String line;
+            while((line = reader.readLine()) != null) {
+                if(!line.trim().isEmpty())
+                    addPosition(line);
+            }
+        }
+    }
+
+    /**
+     * Effectue un passage sur toutes les positions, dans un ordre aléatoire
+     * @param rate pas d'apprentissage
+     * @param random générateur utilisé pour l'ordre des positions
+     * @return erreur quadratique moyenne entre résultat et probabilité prédite, avant mise à jour de chaque position
+     */
+    public double train(double rate, Random random) {
+        int count = mResults.size();
+        int[] order = new int[count];
+        for(int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+
+        for(int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
+        double error = 0;
+        for(int i : order) {
+            float[][] tables = mWeights[mPhasesOf.get(i)];
+            int[] indexes = mIndexes.get(i);
+
+            double logit = 0;
+            for(int instance = 0; instance < indexes.length; instance++) {
+                logit += tables[Patterns.getType(instance)][indexes[instance]];
+            }
+
+            double delta = mResults.get(i) - 1 / (1 + Math.exp(-logit));
+            error += delta * delta;
+
+            for(int instance = 0; instance < indexes.length; instance++) {
+                float[] table = tables[Patterns.getType(instance)];
+                int index = indexes[instance];
+                table[index] += rate * (delta - L2 * table[index]);
+            }
+        }
+
+        return count == 0 ? 0 : error / count;
+    }
+
+    /**
+     * Quantifie les poids appris sur 16 bits
+     * @return tables de PatternHeuristic, en centièmes de logit
+     */
+    public PatternWeights toWeights() {
+        float max = 0;
+        for(float[][] phase : mWeights) {
+            for(float[] table : phase) {
+                for(float weight : table) {
+                    max = Math.max(max, Math.abs(weight));
+                }
+            }
+        }
+
+        float step = max > 0 ? max / Short.MAX_VALUE : 1;
+        short[][][] tables = new short[mPhases][Patterns.TYPE_COUNT][];
+        for(int phase = 0; phase < mPhases; phase++) {
+            for(int type = 0; type < Patterns.TYPE_COUNT; type++) {
+                float[] weights = mWeights[phase][type];
+                tables[phase][type] = new short[weights.length];
+                for(int i = 0; i < weights.length; i++) {
+                    tables[phase][type][i] = (short) Math.round(weights[i] / step);
+                }
+            }
+        }
+
+        return new PatternWeights(tables, step * 100);
+    }
+
+    /**
+     * Ajoute une position étiquetée et calcule l'index de chacun de ses motifs
+     */
+    private void addPosition(String line) {
+        String[] parts = line.trim().split("\\s+");
+        if(parts.length != 3 || parts[0].length() != 64)
+            throw new IllegalArgumentException("Invalid labelled 8x8 position: " + line);
+
+        long black = 0, white = 0;
+        for(int square = 0; square < 64; square++) {
+            char c = parts[0].charAt(square);
+            if(c == 'X')
+                black |= 1L << square;
+            else if(c == 'O')
+                white |= 1L << square;
+        }
+
+        boolean blackToMove = parts[1].equals("X");
+        long own = blackToMove ? black : white;
+        long opp = blackToMove ? white : black;
+
+        int[] indexes = new int[Patterns.INSTANCE_COUNT];
+        for(int instance = 0; instance < indexes.length; instance++) {
+            indexes[instance] = Patterns.getIndex(instance, own, opp);
+        }
+
+        mIndexes.add(indexes);
+        mPhasesOf.add(PatternWeights.getPhase(Long.bitCount(own | opp), mPhases));
+        mResults.add(Double.parseDouble(parts[2]));
+    }
+}
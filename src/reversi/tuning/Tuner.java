@@ -0,0 +1,412 @@
+package reversi.tuning;
+
+import reversi.MovePosition;
+import reversi.PieceColor;
+import reversi.ReversiGame;
+import reversi.heuristics.AbstractHeuristic;
+import reversi.heuristics.HeuristicWeights;
+import reversi.players.AIPlayer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/**
+ * Ajustement automatique des poids de CompositeHeurstic par la méthode de Texel.
+ *
+ * 1. Des positions sont collectées dans des parties jouées par l'IA contre elle-même (ouvertures aléatoires),
+ *    chacune étiquetée par le résultat final de la partie pour le joueur dont c'est le tour (1, 0.5 ou 0).
+ * 2. La valeur de chaque heuristique est calculée une fois pour toutes sur chaque position.
+ * 3. Les poids minimisent l'erreur quadratique moyenne entre le résultat et sigmoid(K * évaluation) :
+ *    K est d'abord ajusté pour les poids de départ, puis chaque poids est augmenté ou diminué d'un pas relatif,
+ *    les candidats étant évalués en parallèle ; le pas est divisé par deux lorsqu'aucun candidat n'améliore l'erreur.
+ *
+ * Les parties et le calcul de l'erreur sont répartis sur tous les coeurs.
+ *
+ * Usage : java -cp bin reversi.tuning.Tuner [-games n] [-depth d] [-opening plies] [-threads n] [-seed s]
+ *         [-positions fichier] [-save-positions fichier] [-start poids] -out poids
+ */
+public final class Tuner {
+
+    // pas relatif initial et minimal appliqué aux poids
+    private static final double INITIAL_STEP = 0.5;
+    private static final double MIN_STEP = 0.001;
+    private static final int MAX_ITERATIONS = 500;
+
+    // nombre de positions par tâche lors du calcul de l'erreur
+    private static final int CHUNK_SIZE = 4096;
+
+    // valeurs des heuristiques et résultats, une ligne par position
+    private final List<double[]> mFeatures = new ArrayList<>();
+    private final List<Double> mResults = new ArrayList<>();
+    private final List<String> mPositions = new ArrayList<>();
+
+    private final ExecutorService mExecutor;
+
+    /**
+     * Constructeur
+     * @param threads nombre de threads utilisés
+     */
+    public Tuner(int threads) {
+        if(threads <= 0)
+            throw new IllegalArgumentException("threads must be a positive integer");
+
+        mExecutor = Executors.newFixedThreadPool(threads);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int games = 2000, depth = 2, opening = 8, threads = Runtime.getRuntime().availableProcessors();
+        long seed = 0;
+        String positions = null, savePositions = null, start = null, output = null;
+
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "-games":
+                    games = Integer.parseInt(args[++i]);
+                    break;
+                case "-depth":
+                    depth = Integer.parseInt(args[++i]);
+                    break;
+                case "-opening":
+                    opening = Integer.parseInt(args[++i]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "-positions":
+                    positions = args[++i];
+                    break;
+                case "-save-positions":
+                    savePositions = args[++i];
+                    break;
+                case "-start":
+                    start = args[++i];
+                    break;
+                case "-out":
+                    output = args[++i];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        if(output == null)
+            throw new IllegalArgumentException("An output weights file must be given with -out");
+
+        HeuristicWeights weights = start != null ? HeuristicWeights.load(Paths.get(start)) : HeuristicWeights.createDefault();
+        Tuner tuner = new Tuner(threads);
+
+        try {
+            long time = System.nanoTime();
+            if(positions != null)
+                tuner.loadPositions(Paths.get(positions));
+            else
+                tuner.generatePositions(games, depth, opening, seed, weights);
+
+            System.out.println(String.format(Locale.ROOT, "%d positions in %.1f s", tuner.mResults.size(), (System.nanoTime() - time) / 1e9));
+
+            if(savePositions != null)
+                tuner.savePositions(Paths.get(savePositions));
+
+            HeuristicWeights tuned = tuner.tune(weights);
+            tuned.save(Paths.get(output), "Texel tuning on " + tuner.mResults.size() + " positions");
+            System.out.println("Weights written to " + output + " : " + tuned);
+        } finally {
+            tuner.mExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Joue des parties de l'IA contre elle-même et collecte leurs positions
+     * @param games nombre de parties
+     * @param depth profondeur de recherche des joueurs
+     * @param opening nombre de coups aléatoires en début de partie, les positions de l'ouverture ne sont pas collectées
+     * @param seed graine des ouvertures
+     * @param weights poids des joueurs
+     */
+    public void generatePositions(int games, int depth, int opening, long seed, HeuristicWeights weights) {
+        List<Future<List<String>>> futures = new ArrayList<>(games);
+
+        for(int i = 0; i < games; i++) {
+            long gameSeed = seed * 31 + i;
+            futures.add(mExecutor.submit(() -> playGame(gameSeed, depth, opening, weights)));
+        }
+
+        for(Future<List<String>> future : futures) {
+            for(String line : get(future)) {
+                addPosition(line);
+            }
+        }
+    }
+
+    /**
+     * Lit des positions étiquetées, une par ligne : plateau (voir ReversiGame.setPosition), joueur (X ou O), résultat
+     * @param file chemin du fichier
+     * @throws IOException si le fichier ne peut pas être lu
+     */
+    public void loadPositions(Path file) throws IOException {
+        try(BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while((line = reader.readLine()) != null) {
+                if(!line.trim().isEmpty())
+                    addPosition(line);
+            }
+        }
+    }
+
+    /**
+     * Écrit les positions collectées dans le format lu par loadPositions
+     * @param file chemin du fichier
+     * @throws IOException si le fichier ne peut pas être écrit
+     */
+    public void savePositions(Path file) throws IOException {
+        try(PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            for(String position : mPositions) {
+                writer.println(position);
+            }
+        }
+    }
+
+    /**
+     * Ajuste les poids sur les positions collectées
+     * @param start poids de départ
+     * @return poids ajustés
+     */
+    public HeuristicWeights tune(HeuristicWeights start) {
+        if(mResults.isEmpty())
+            throw new IllegalStateException("No positions to tune on");
+
+        String[] names = HeuristicWeights.NAMES;
+        double[] weights = new double[names.length];
+        for(int i = 0; i < names.length; i++) {
+            weights[i] = start.getWeight(names[i]);
+        }
+
+        double k = fitScale(weights);
+        double error = error(weights, k);
+        System.out.println(String.format(Locale.ROOT, "K = %.3e, start error %.6f", k, error));
+
+        double step = INITIAL_STEP;
+        for(int iteration = 0; iteration < MAX_ITERATIONS && step >= MIN_STEP; iteration++) {
+            // chaque poids est augmenté puis diminué, les candidats sont évalués en parallèle
+            List<double[]> candidates = new ArrayList<>();
+            for(int i = 0; i < weights.length; i++) {
+                for(int sign = -1; sign <= 1; sign += 2) {
+                    double[] candidate = weights.clone();
+                    // un poids nul évolue par pas absolus pour pouvoir quitter zéro
+                    candidate[i] += sign * step * (weights[i] != 0 ? Math.abs(weights[i]) : 1);
+                    candidates.add(candidate);
+                }
+            }
+
+            List<Future<Double>> errors = new ArrayList<>();
+            for(double[] candidate : candidates) {
+                errors.add(mExecutor.submit(() -> errorSequential(candidate, k)));
+            }
+
+            int best = -1;
+            double bestError = error;
+            for(int i = 0; i < candidates.size(); i++) {
+                double candidateError = get(errors.get(i));
+                if(candidateError < bestError) {
+                    bestError = candidateError;
+                    best = i;
+                }
+            }
+
+            if(best < 0) {
+                step /= 2;
+            } else {
+                weights = candidates.get(best);
+                error = bestError;
+            }
+        }
+
+        System.out.println(String.format(Locale.ROOT, "final error %.6f", error));
+
+        HeuristicWeights tuned = new HeuristicWeights();
+        for(int i = 0; i < names.length; i++) {
+            tuned.setWeight(names[i], weights[i]);
+        }
+
+        return tuned;
+    }
+
+    /**
+     * Joue une partie et renvoie ses positions étiquetées
+     */
+    private static List<String> playGame(long seed, int depth, int opening, HeuristicWeights weights) {
+        AIPlayer white = new AIPlayer(PieceColor.White, weights.createHeuristic(), depth);
+        AIPlayer black = new AIPlayer(PieceColor.Black, weights.createHeuristic(), depth);
+        white.setSeed(seed);
+        black.setSeed(seed + 1);
+
+        ReversiGame game = new ReversiGame(white, black);
+        game.init();
+
+        Random random = new Random(seed);
+        List<String> boards = new ArrayList<>();
+        List<PieceColor> colors = new ArrayList<>();
+
+        for(int ply = 0; !game.isGameOver(); ply++) {
+            MovePosition move;
+            if(ply < opening) {
+                List<MovePosition> moves = game.getPossibleMoves(game.getCurrentPlayer());
+                move = moves.isEmpty() ? null : moves.get(random.nextInt(moves.size()));
+            } else {
+                boards.add(toPosition(game));
+                colors.add(game.getCurrentPlayer().getColor());
+                move = game.getCurrentPlayer().playTurn(game);
+            }
+
+            game.play(move);
+        }
+
+        int whiteScore = game.getScore(PieceColor.White);
+        int blackScore = game.getScore(PieceColor.Black);
+
+        List<String> lines = new ArrayList<>(boards.size());
+        for(int i = 0; i < boards.size(); i++) {
+            int diff = colors.get(i) == PieceColor.White ? whiteScore - blackScore : blackScore - whiteScore;
+            double result = diff > 0 ? 1 : diff < 0 ? 0 : 0.5;
+            lines.add(boards.get(i) + " " + (colors.get(i) == PieceColor.Black ? "X" : "O") + " " + result);
+        }
+
+        return lines;
+    }
+
+    /**
+     * Ajoute une position étiquetée et calcule la valeur de chaque heuristique
+     */
+    private void addPosition(String line) {
+        String[] parts = line.trim().split("\\s+");
+        if(parts.length != 3)
+            throw new IllegalArgumentException("Invalid labelled position: " + line);
+
+        ReversiGame game = new ReversiGame(new AIPlayer(PieceColor.White, HeuristicWeights.createHeuristic(HeuristicWeights.SCORE), 1),
+            new AIPlayer(PieceColor.Black, HeuristicWeights.createHeuristic(HeuristicWeights.SCORE), 1));
+        game.setPosition(parts[0], parts[1].equals("X") ? PieceColor.Black : PieceColor.White);
+
+        String[] names = HeuristicWeights.NAMES;
+        double[] features = new double[names.length];
+        for(int i = 0; i < names.length; i++) {
+            AbstractHeuristic heuristic = HeuristicWeights.createHeuristic(names[i]);
+            features[i] = heuristic.evaluate(game);
+        }
+
+        mFeatures.add(features);
+        mResults.add(Double.parseDouble(parts[2]));
+        mPositions.add(line.trim());
+    }
+
+    /**
+     * Ajuste le facteur d'échelle K de la sigmoïde pour les poids donnés, par recherche ternaire sur log(K)
+     */
+    private double fitScale(double[] weights) {
+        double low = Math.log(1e-7);
+        double high = Math.log(1);
+
+        for(int i = 0; i < 60; i++) {
+            double a = low + (high - low) / 3;
+            double b = high - (high - low) / 3;
+
+            if(error(weights, Math.exp(a)) < error(weights, Math.exp(b)))
+                high = b;
+            else
+                low = a;
+        }
+
+        return Math.exp((low + high) / 2);
+    }
+
+    /**
+     * Erreur quadratique moyenne, calculée en parallèle par blocs de positions
+     */
+    private double error(double[] weights, double k) {
+        int chunks = (mResults.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        List<Future<Double>> sums = new ArrayList<>(chunks);
+        for(int c = 0; c < chunks; c++) {
+            int from = c * CHUNK_SIZE;
+            int to = Math.min(from + CHUNK_SIZE, mResults.size());
+            sums.add(mExecutor.submit(() -> squaredErrors(weights, k, from, to)));
+        }
+
+        double total = 0;
+        for(Future<Double> sum : sums) {
+            total += get(sum);
+        }
+
+        return total / mResults.size();
+    }
+
+    /**
+     * Erreur quadratique moyenne calculée par le thread courant
+     */
+    private double errorSequential(double[] weights, double k) {
+        return squaredErrors(weights, k, 0, mResults.size()) / mResults.size();
+    }
+
+    /**
+     * Somme des erreurs quadratiques sur les positions [from, to[
+     */
+    private double squaredErrors(double[] weights, double k, int from, int to) {
+        return IntStream.range(from, to).mapToDouble(i -> {
+            double[] features = mFeatures.get(i);
+            double evaluation = 0;
+            for(int j = 0; j < features.length; j++) {
+                evaluation += weights[j] * features[j];
+            }
+
+            double predicted = 1 / (1 + Math.exp(-k * evaluation));
+            double delta = mResults.get(i) - predicted;
+            return delta * delta;
+        }).sum();
+    }
+
+    /**
+     * Décrit le plateau d'une partie dans le format de ReversiGame.setPosition
+     */
+    private static String toPosition(ReversiGame game) {
+        StringBuilder position = new StringBuilder(game.getRows() * game.getColumns());
+
+        for(int row = 0; row < game.getRows(); row++) {
+            for(int column = 0; column < game.getColumns(); column++) {
+                PieceColor c = game.getBoard().getPieceColor(row, column);
+                position.append(c == null ? '-' : c == PieceColor.Black ? 'X' : 'O');
+            }
+        }
+
+        return position.toString();
+    }
+
+    /**
+     * Attend le résultat d'une tâche
+     */
+    private static <T> T get(Future<T> future) {
+        try {
+            return future.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tuning interrupted", e);
+        } catch(ExecutionException e) {
+            throw new IllegalStateException("Tuning task failed", e.getCause());
+        }
+    }
+}